@@ -0,0 +1,141 @@
+package com.example.BusTopia.benchmark;
+
+import com.example.BusTopia.DatabaseEntity.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+// TestDataBuilder-style data at production scale, deterministic so runs are comparable
+public class BenchmarkFixtures {
+
+    public static final String[] STOPS = {
+            "Dhaka", "Narayanganj", "Comilla", "Feni", "Chittagong", "Cox's Bazar", "Sylhet", "Moulvibazar",
+            "Habiganj", "Brahmanbaria", "Mymensingh", "Tangail", "Bogura", "Rajshahi", "Khulna", "Jessore",
+            "Barisal", "Rangpur", "Dinajpur", "Kushtia"
+    };
+    public static final String[] CATEGORIES = {"AC", "Non-AC", "Sleeper"};
+
+    // 12 rows of 2+2 and a back row of 2, 50 seats
+    public static SeatLayout buildSeatLayout(int layoutId) {
+        List<List<String>> grid = new ArrayList<>();
+        for (int row = 0; row < 12; row++) {
+            char letter = (char) ('A' + row);
+            grid.add(List.of(letter + "1", letter + "2", "", letter + "3", letter + "4"));
+        }
+        grid.add(List.of("N1", "N2", "", "", ""));
+
+        SeatLayout layout = new SeatLayout();
+        layout.setLayoutId(layoutId);
+        layout.setName("Standard 2+2");
+        layout.setCategory("AC");
+        layout.setLayout(grid);
+        return layout;
+    }
+
+    public static List<String> seatLabels(SeatLayout layout) {
+        List<String> seats = new ArrayList<>();
+        for (List<String> row : layout.getLayout()) {
+            for (String seat : row) {
+                if (!seat.isEmpty()) seats.add(seat);
+            }
+        }
+        return seats;
+    }
+
+    // Every route starts in Dhaka and runs through a random walk of the other stops
+    public static List<Route> buildRoutes(int count, Random random) {
+        List<Route> routes = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            List<String> others = new ArrayList<>(Arrays.asList(STOPS).subList(1, STOPS.length));
+            Collections.shuffle(others, random);
+            List<String> stops = new ArrayList<>();
+            stops.add("Dhaka");
+            stops.addAll(others.subList(0, 3 + random.nextInt(5)));
+
+            Route route = new Route();
+            route.setRouteId(id);
+            route.setStops(stops);
+            routes.add(route);
+        }
+        return routes;
+    }
+
+    public static List<Bus> buildBuses(int count, List<Route> routes, SeatLayout layout, Random random) {
+        List<Bus> buses = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            Bus bus = new Bus();
+            bus.setBusId(id);
+            bus.setCompanyName("Company " + (id % 40));
+            bus.setLicenseNo("DHA-" + id);
+            bus.setCategory(CATEGORIES[id % CATEGORIES.length]);
+            bus.setStartTime(LocalTime.of(5 + random.nextInt(18), random.nextInt(4) * 15));
+            bus.setPhoto("bus.jpg");
+            bus.setRoute(routes.get(random.nextInt(routes.size())));
+            bus.setSeatLayout(layout);
+            buses.add(bus);
+        }
+        return buses;
+    }
+
+    public static List<TimeMapping> buildTimeMappings(Random random) {
+        List<TimeMapping> mappings = new ArrayList<>();
+        int id = 1;
+        for (int i = 0; i < STOPS.length; i++) {
+            for (int j = i + 1; j < STOPS.length; j++) {
+                TimeMapping mapping = new TimeMapping();
+                mapping.setMappingId(id++);
+                mapping.setStop1(STOPS[i]);
+                mapping.setStop2(STOPS[j]);
+                mapping.setDuration(30 + random.nextInt(240));
+                mappings.add(mapping);
+            }
+        }
+        return mappings;
+    }
+
+    public static List<PriceMapping> buildPriceMappings(Random random) {
+        List<PriceMapping> mappings = new ArrayList<>();
+        int id = 1;
+        for (int i = 0; i < STOPS.length; i++) {
+            for (int j = i + 1; j < STOPS.length; j++) {
+                for (String category : CATEGORIES) {
+                    PriceMapping mapping = new PriceMapping();
+                    mapping.setMappingId(id++);
+                    mapping.setCategory(category);
+                    mapping.setStop1(STOPS[i]);
+                    mapping.setStop2(STOPS[j]);
+                    mapping.setPrice(300 + random.nextInt(1500));
+                    mappings.add(mapping);
+                }
+            }
+        }
+        return mappings;
+    }
+
+    // Seat -> ticket map of a bus that is about two thirds full
+    public static Map<String, Long> buildBookedSeats(List<String> seats, Random random) {
+        Map<String, Long> booked = new HashMap<>();
+        long ticketId = 10_000 + random.nextInt(10_000);
+        for (String seat : seats) {
+            if (random.nextInt(3) != 0) booked.put(seat, ticketId++);
+        }
+        return booked;
+    }
+
+    public static List<LocalDate> journeyDates(LocalDate from, int days) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; i < days; i++) dates.add(from.plusDays(i));
+        return dates;
+    }
+
+    public static UserEntity buildUser(long id) {
+        UserEntity user = new UserEntity();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPassword("password");
+        user.setName("User " + id);
+        user.setRole("ROLE_USER");
+        return user;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.BusTopia.benchmark;
+
+import com.example.BusTopia.DatabaseEntity.Converters.StringListConverter;
+import jakarta.persistence.*;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk insert of ticket-shaped rows the way saveAll does it: identity ids without batching (the old setup)
+ * against pooled sequence ids with JDBC batching and ordered inserts (the current one).
+ * Runs on in-memory H2; pass -Dbench.jdbc.url / bench.jdbc.user / bench.jdbc.password to measure against
+ * PostgreSQL, where the saved round trips and reWriteBatchedInserts make the gap much wider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"IDENTITY", "SEQUENCE_BATCHED"})
+    public String mode;
+
+    @Param({"1000"})
+    public int rows;
+
+    private SessionFactory sessionFactory;
+    private final List<String> seats = List.of("A1", "A2");
+    private final LocalDate journeyDate = LocalDate.of(2030, 1, 15);
+
+    @Entity(name = "IdentityTicketRow")
+    @Table(name = "identity_ticket_row")
+    public static class IdentityTicketRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        public Integer ticketId;
+        public String source;
+        public String destination;
+        public LocalDate date;
+        @Convert(converter = StringListConverter.class)
+        @Column(columnDefinition = "TEXT")
+        public List<String> seats;
+        public Integer price;
+    }
+
+    @Entity(name = "SequenceTicketRow")
+    @Table(name = "sequence_ticket_row")
+    public static class SequenceTicketRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequence_ticket_row_seq")
+        @SequenceGenerator(name = "sequence_ticket_row_seq", sequenceName = "sequence_ticket_row_seq", allocationSize = 50)
+        public Integer ticketId;
+        public String source;
+        public String destination;
+        public LocalDate date;
+        @Convert(converter = StringListConverter.class)
+        @Column(columnDefinition = "TEXT")
+        public List<String> seats;
+        public Integer price;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String url = System.getProperty("bench.jdbc.url", "jdbc:h2:mem:bulk-" + mode + ";DB_CLOSE_DELAY=-1");
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(IdentityTicketRow.class)
+                .addAnnotatedClass(SequenceTicketRow.class)
+                .setProperty("hibernate.connection.url", url)
+                .setProperty("hibernate.connection.username", System.getProperty("bench.jdbc.user", "sa"))
+                .setProperty("hibernate.connection.password", System.getProperty("bench.jdbc.password", ""))
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.show_sql", "false");
+        if (mode.equals("SEQUENCE_BATCHED")) {
+            configuration
+                    .setProperty("hibernate.jdbc.batch_size", String.valueOf(BATCH_SIZE))
+                    .setProperty("hibernate.order_inserts", "true")
+                    .setProperty("hibernate.order_updates", "true");
+            if (url.startsWith("jdbc:postgresql:")) {
+                configuration.setProperty("hibernate.connection.reWriteBatchedInserts", "true");
+            }
+        }
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearRows() {
+        sessionFactory.inTransaction(session -> {
+            session.createMutationQuery("delete from IdentityTicketRow").executeUpdate();
+            session.createMutationQuery("delete from SequenceTicketRow").executeUpdate();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int saveAll() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < rows; i++) {
+                session.persist(mode.equals("IDENTITY") ? identityRow(i) : sequenceRow(i));
+                // Keeps the persistence context small, as a long saveAll loop should
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+        }
+        return rows;
+    }
+
+    private IdentityTicketRow identityRow(int i) {
+        IdentityTicketRow row = new IdentityTicketRow();
+        row.source = "Dhaka";
+        row.destination = "Chittagong";
+        row.date = journeyDate;
+        row.seats = seats;
+        row.price = 1200 + i % 7;
+        return row;
+    }
+
+    private SequenceTicketRow sequenceRow(int i) {
+        SequenceTicketRow row = new SequenceTicketRow();
+        row.source = "Dhaka";
+        row.destination = "Chittagong";
+        row.date = journeyDate;
+        row.seats = seats;
+        row.price = 1200 + i % 7;
+        return row;
+    }
+}
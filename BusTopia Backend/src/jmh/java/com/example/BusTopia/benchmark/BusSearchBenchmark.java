@@ -0,0 +1,106 @@
+package com.example.BusTopia.benchmark;
+
+import com.example.BusTopia.DTOs.BuyTicket.BusSearchRequest;
+import com.example.BusTopia.DTOs.BuyTicket.BusSearchResponse;
+import com.example.BusTopia.DatabaseEntity.Bus;
+import com.example.BusTopia.DatabaseEntity.Route;
+import com.example.BusTopia.DatabaseEntity.SeatLayout;
+import com.example.BusTopia.Inventory.SeatInventoryService;
+import com.example.BusTopia.MySqlRepositories.*;
+import com.example.BusTopia.Services.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Assembly of search results over a fleet of several thousand buses. Repositories are stubs answering
+ * from the fixtures, so the numbers are the in-process cost on top of the queries a search issues.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:+EnableDynamicAgentLoading") // Mockito stubs attach an agent
+public class BusSearchBenchmark {
+
+    @Param({"2000", "8000"})
+    public int busCount;
+
+    private BusSearchService busSearchService;
+    private BusService busService;
+    private BusSearchRequest request;
+    private LocalDate journeyDate;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        SeatLayout layout = BenchmarkFixtures.buildSeatLayout(1);
+        List<Route> routes = BenchmarkFixtures.buildRoutes(200, random);
+        List<Bus> buses = BenchmarkFixtures.buildBuses(busCount, routes, layout, random);
+        Map<Integer, Bus> busesById = new HashMap<>();
+        buses.forEach(bus -> busesById.put(bus.getBusId(), bus));
+        journeyDate = LocalDate.of(2030, 3, 1);
+
+        RouteRepository routeRepository = mock(RouteRepository.class);
+        BusRepository busRepository = mock(BusRepository.class);
+        TimeMappingRepository timeMappingRepository = mock(TimeMappingRepository.class);
+        PriceMappingRepository priceMappingRepository = mock(PriceMappingRepository.class);
+        SeatAvailabilityMappingRepository seatAvailabilityRepository = mock(SeatAvailabilityMappingRepository.class);
+
+        when(routeRepository.findAll()).thenReturn(routes);
+        when(busRepository.findBusIdAndRouteId()).thenReturn(buses.stream()
+                .map(bus -> new Object[]{bus.getBusId(), bus.getRoute().getRouteId()})
+                .toList());
+        when(busRepository.findByBusIdIn(any())).thenAnswer(invocation -> {
+            List<Bus> found = new ArrayList<>();
+            for (Integer id : invocation.<Iterable<Integer>>getArgument(0)) found.add(busesById.get(id));
+            return found;
+        });
+        when(timeMappingRepository.findAll()).thenReturn(BenchmarkFixtures.buildTimeMappings(random));
+        when(priceMappingRepository.findAll()).thenReturn(BenchmarkFixtures.buildPriceMappings(random));
+        when(seatAvailabilityRepository.findAvailableSeatsByBusIdsAndJourneyDate(anyCollection(), any()))
+                .thenAnswer(invocation -> invocation.<Collection<Integer>>getArgument(0).stream()
+                        .filter(id -> id % 3 == 0)
+                        .map(id -> new Object[]{id, 20 + id % 30})
+                        .toList());
+
+        RouteStopIndex routeStopIndex = new RouteStopIndex(routeRepository, busRepository);
+        routeStopIndex.rebuild();
+        RouteTimetableIndex routeTimetableIndex = new RouteTimetableIndex(routeRepository, timeMappingRepository);
+        routeTimetableIndex.rebuild();
+        PriceMatrixService priceMatrixService = new PriceMatrixService(priceMappingRepository);
+        priceMatrixService.reload();
+        RouteService routeService = new RouteService(priceMappingRepository, routeRepository, busRepository, routeStopIndex);
+        SeatInventoryService seatInventoryService = new SeatInventoryService(seatAvailabilityRepository, mock(TicketRepository.class), mock(BookedSeatRepository.class));
+
+        Clock clock = Clock.fixed(journeyDate.minusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        busSearchService = new BusSearchService(routeService, priceMatrixService, timeMappingRepository,
+                seatAvailabilityRepository, seatInventoryService, routeTimetableIndex);
+        busSearchService.setClock(clock);
+        busService = new BusService(busRepository, routeService, priceMatrixService, timeMappingRepository, routeTimetableIndex);
+        busService.setClock(clock);
+
+        // Dhaka starts every route, so this pair matches the widest set of routes
+        String destination = routes.get(0).getStops().get(2);
+        when(routeRepository.findRoutesContainingBothStops(any(), any())).thenReturn(routeStopIndex.findRoutes("Dhaka", destination));
+        when(busRepository.findByRouteIn(any())).thenAnswer(invocation ->
+                busRepository.findByBusIdIn(routeStopIndex.findBusIds(invocation.getArgument(0))));
+        request = new BusSearchRequest("Dhaka", destination, journeyDate, "", 0, 100_000);
+    }
+
+    @Benchmark
+    public List<BusSearchResponse> search() {
+        return busSearchService.search(request);
+    }
+
+    @Benchmark
+    public List<Bus> getAvailableBuses() {
+        return busService.getAvailableBuses(request.getSource(), request.getDestination(), journeyDate, "", 0, 100_000);
+    }
+}
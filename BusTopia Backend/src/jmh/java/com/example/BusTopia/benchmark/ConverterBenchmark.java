@@ -0,0 +1,75 @@
+package com.example.BusTopia.benchmark;
+
+import com.example.BusTopia.DatabaseEntity.Converters.BookedSeatMapConverter;
+import com.example.BusTopia.DatabaseEntity.Converters.SeatGridConverter;
+import com.example.BusTopia.DatabaseEntity.Converters.StringListConverter;
+import com.example.BusTopia.DatabaseEntity.SeatLayout;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// JSON column converters, paid on every load and flush of the entities that use them
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private final BookedSeatMapConverter bookedSeatMapConverter = new BookedSeatMapConverter();
+    private final SeatGridConverter seatGridConverter = new SeatGridConverter();
+    private final StringListConverter stringListConverter = new StringListConverter();
+
+    private Map<String, Long> bookedSeats;
+    private String bookedSeatsJson;
+    private List<List<String>> seatGrid;
+    private String seatGridJson;
+    private List<String> ticketSeats;
+    private String ticketSeatsJson;
+
+    @Setup
+    public void setup() {
+        SeatLayout layout = BenchmarkFixtures.buildSeatLayout(1);
+        List<String> seats = BenchmarkFixtures.seatLabels(layout);
+        bookedSeats = BenchmarkFixtures.buildBookedSeats(seats, new Random(42));
+        bookedSeatsJson = bookedSeatMapConverter.convertToDatabaseColumn(bookedSeats);
+        seatGrid = layout.getLayout();
+        seatGridJson = seatGridConverter.convertToDatabaseColumn(seatGrid);
+        ticketSeats = seats.subList(0, 4);
+        ticketSeatsJson = stringListConverter.convertToDatabaseColumn(ticketSeats);
+    }
+
+    @Benchmark
+    public String bookedSeatsToJson() {
+        return bookedSeatMapConverter.convertToDatabaseColumn(bookedSeats);
+    }
+
+    @Benchmark
+    public Map<String, Long> bookedSeatsFromJson() {
+        return bookedSeatMapConverter.convertToEntityAttribute(bookedSeatsJson);
+    }
+
+    @Benchmark
+    public String seatGridToJson() {
+        return seatGridConverter.convertToDatabaseColumn(seatGrid);
+    }
+
+    @Benchmark
+    public List<List<String>> seatGridFromJson() {
+        return seatGridConverter.convertToEntityAttribute(seatGridJson);
+    }
+
+    @Benchmark
+    public String ticketSeatsToJson() {
+        return stringListConverter.convertToDatabaseColumn(ticketSeats);
+    }
+
+    @Benchmark
+    public List<String> ticketSeatsFromJson() {
+        return stringListConverter.convertToEntityAttribute(ticketSeatsJson);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.BusTopia.benchmark;
+
+import com.example.BusTopia.SecurityConfiguration.JwtUtility;
+import com.example.BusTopia.SecurityConfiguration.JwtVerificationCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Token handling done by JwtAuthFilter on every authenticated request
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtility jwtUtility;
+    private JwtVerificationCache jwtVerificationCache;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtility = new JwtUtility();
+        byte[] key = new byte[32];
+        new Random(3).nextBytes(key);
+        ReflectionTestUtils.setField(jwtUtility, "SECRET_KEY", Base64.getEncoder().encodeToString(key));
+        ReflectionTestUtils.setField(jwtUtility, "expirationMs", 3_600_000L);
+        user = BenchmarkFixtures.buildUser(1L);
+        token = jwtUtility.generateToken(user);
+        jwtVerificationCache = new JwtVerificationCache(jwtUtility, 10_000);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtility.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUserName() {
+        return jwtUtility.extractUserName(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtility.validateToken(user, token);
+    }
+
+    @Benchmark
+    public JwtUtility.VerifiedToken verify() {
+        return jwtUtility.verify(token);
+    }
+
+    // Repeat caller as seen by JwtAuthFilter
+    @Benchmark
+    public Object verifyCached() {
+        return jwtVerificationCache.verify(token);
+    }
+}
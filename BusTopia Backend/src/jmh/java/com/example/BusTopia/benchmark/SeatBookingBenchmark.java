@@ -0,0 +1,124 @@
+package com.example.BusTopia.benchmark;
+
+import com.example.BusTopia.DatabaseEntity.*;
+import com.example.BusTopia.DatabaseEntity.Converters.BookedSeatMapConverter;
+import com.example.BusTopia.Inventory.SeatHoldService;
+import com.example.BusTopia.Inventory.SeatInventory;
+import com.example.BusTopia.Inventory.SeatInventoryService;
+import com.example.BusTopia.MySqlRepositories.*;
+import com.example.BusTopia.Services.PriceMatrixService;
+import com.example.BusTopia.Services.SalesRollupService;
+import com.example.BusTopia.Services.TicketService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Seat validation and the booking path of TicketService, with stubbed repositories
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+EnableDynamicAgentLoading") // Mockito stubs attach an agent
+public class SeatBookingBenchmark {
+
+    private final BookedSeatMapConverter bookedSeatMapConverter = new BookedSeatMapConverter();
+
+    private TicketService ticketService;
+    private SeatInventory inventory;
+    private Bus bus;
+    private LocalDate journeyDate;
+    private List<List<String>> freeSeatPairs;
+    private String bookedSeatsJson;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(11);
+        SeatLayout layout = BenchmarkFixtures.buildSeatLayout(1);
+        List<String> seats = BenchmarkFixtures.seatLabels(layout);
+        List<Route> routes = BenchmarkFixtures.buildRoutes(1, random);
+        bus = BenchmarkFixtures.buildBuses(1, routes, layout, random).get(0);
+        bus.setCategory("AC");
+        journeyDate = LocalDate.of(2030, 3, 1);
+
+        Map<String, Long> bookedSeats = BenchmarkFixtures.buildBookedSeats(seats, random);
+        bookedSeatsJson = bookedSeatMapConverter.convertToDatabaseColumn(bookedSeats);
+        freeSeatPairs = new ArrayList<>();
+        List<String> free = seats.stream().filter(seat -> !bookedSeats.containsKey(seat)).toList();
+        for (int i = 0; i + 1 < free.size(); i += 2) {
+            freeSeatPairs.add(List.of(free.get(i), free.get(i + 1)));
+        }
+
+        SeatAvailabilityMapping mapping = new SeatAvailabilityMapping();
+        mapping.setBus(bus);
+        mapping.setJourneyDate(journeyDate);
+        mapping.setTotalSeats(seats.size());
+        mapping.setAvailableSeats(seats.size() - bookedSeats.size());
+        mapping.setBookedSeats(bookedSeats);
+
+        TicketRepository ticketRepository = mock(TicketRepository.class);
+        BusRepository busRepository = mock(BusRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        PriceMappingRepository priceMappingRepository = mock(PriceMappingRepository.class);
+        SeatAvailabilityMappingRepository seatAvailabilityRepository = mock(SeatAvailabilityMappingRepository.class);
+
+        AtomicInteger ticketIds = new AtomicInteger(1_000_000);
+        when(ticketRepository.save(any(Ticket.class))).thenAnswer(invocation -> {
+            Ticket ticket = invocation.getArgument(0);
+            ticket.setTicketId(ticketIds.incrementAndGet());
+            return ticket;
+        });
+        when(busRepository.findById(bus.getBusId())).thenReturn(Optional.of(bus));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(BenchmarkFixtures.buildUser(1L)));
+        when(priceMappingRepository.findAll()).thenReturn(BenchmarkFixtures.buildPriceMappings(random));
+        when(seatAvailabilityRepository.findByBus_BusIdAndJourneyDate(bus.getBusId(), journeyDate)).thenReturn(Optional.of(mapping));
+
+        PriceMatrixService priceMatrixService = new PriceMatrixService(priceMappingRepository);
+        priceMatrixService.reload();
+        SeatInventoryService seatInventoryService = new SeatInventoryService(seatAvailabilityRepository, ticketRepository, mock(BookedSeatRepository.class));
+        ticketService = new TicketService(ticketRepository, busRepository, userRepository, mock(TimeMappingRepository.class),
+                priceMatrixService, seatInventoryService,
+                new SeatHoldService(seatInventoryService, 10), mock(SalesRollupService.class));
+        inventory = seatInventoryService.getInventory(bus, journeyDate);
+    }
+
+    private List<String> nextSeats() {
+        List<String> seats = freeSeatPairs.get(next);
+        next = (next + 1) % freeSeatPairs.size();
+        return seats;
+    }
+
+    // What the booking path did before the inventory: parse the JSON map and look every seat up
+    @Benchmark
+    public boolean seatValidationFromJson() {
+        Map<String, Long> booked = bookedSeatMapConverter.convertToEntityAttribute(bookedSeatsJson);
+        for (String seat : nextSeats()) {
+            if (booked.containsKey(seat)) return false;
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean seatValidationInventory() {
+        SeatInventory.SeatClaim claim = inventory.claim(inventory.resolve(nextSeats()));
+        return claim.release();
+    }
+
+    @Benchmark
+    public Ticket bookTicket() {
+        List<String> seats = nextSeats();
+        Ticket ticket = ticketService.bookTicket(1L, bus.getBusId(), journeyDate, LocalTime.of(8, 0),
+                "Dhaka", bus.getRoute().getStops().get(1), seats);
+        // Hand the seats back so every invocation books the same amount of work
+        inventory.releaseTicket(seats, ticket.getTicketId());
+        return ticket;
+    }
+}
@@ -2,12 +2,12 @@ package com.example.BusTopia.AiIntegration;
 
 import com.example.BusTopia.DatabaseEntity.Bus;
 import com.example.BusTopia.DatabaseEntity.PriceMapping;
-import com.example.BusTopia.DatabaseEntity.Review;
 import com.example.BusTopia.DatabaseEntity.Route;
 import com.example.BusTopia.MySqlRepositories.BusRepository;
 import com.example.BusTopia.MySqlRepositories.PriceMappingRepository;
-import com.example.BusTopia.MySqlRepositories.ReviewRepository;
-import com.example.BusTopia.MySqlRepositories.RouteRepository;
+import com.example.BusTopia.DTOs.Review.RatingSummaryResponse;
+import com.example.BusTopia.Services.RatingAggregateService;
+import com.example.BusTopia.Services.RouteService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,12 +16,14 @@ import org.springframework.stereotype.Service;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class AssistantAgent {
 
     private final IntentClassifier classifier;
     private final LLMService llm;
+    private final AssistantResponseCache responseCache;
 
     private final PriceMappingRepository priceMappingRepository;
 
@@ -29,17 +31,24 @@ public class AssistantAgent {
     private  BusRepository busRepository;
 
     @Autowired
-    private RouteRepository routeRepository;
+    private RouteService routeService;
 
     @Autowired
-    private ReviewRepository reviewRepository;
+    private RatingAggregateService ratingAggregateService;
 
-    public AssistantAgent(IntentClassifier classifier, LLMService llm,PriceMappingRepository priceMappingRepository ) {
+    public AssistantAgent(IntentClassifier classifier, LLMService llm, AssistantResponseCache responseCache,
+                          PriceMappingRepository priceMappingRepository ) {
         this.classifier = classifier;
         this.llm = llm;
+        this.responseCache = responseCache;
         this.priceMappingRepository=priceMappingRepository;
     }
     public String handle(String userInput) {
+        return handle(userInput, null);
+    }
+
+    // onToken, when given, receives a reply written by the LLM token by token while it is generated
+    public String handle(String userInput, Consumer<String> onToken) {
 
         String trimmed = userInput.substring(1, userInput.length() - 1);
         String[] parts = trimmed.split("\",\"");
@@ -50,13 +59,18 @@ public class AssistantAgent {
 
         String last = parts[parts.length - 1].trim();
 
-        List<Object> response = classifier.classify(userInput);
-        IntentType intent = (IntentType) response.get(0);
+        IntentResult classified = classifier.classify(userInput, last);
+        IntentType intent = classified.intent();
         System.out.println(intent);
 
         switch (intent) {
             case SMALL_TALK:
-                return llm.callOpenAI("Respond naturally to this ignoring the 'user :' at the start : " + last);
+                if (classified.reply() != null) return classified.reply();
+                String smallTalk = responseCache.get(intent.name(), last, () -> {
+                    String prompt = "Respond naturally to this ignoring the 'user :' at the start : " + last;
+                    return onToken != null ? llm.streamAsync(prompt, onToken).join() : llm.callOpenAI(prompt);
+                });
+                return smallTalk.equals(LLMService.UNKNOWN) ? "Sorry, I didn’t catch that. Could you rephrase?" : smallTalk;
 
             case UNKNOWN:
                 return "Sorry, I didn’t catch that. Could you rephrase?";
@@ -74,9 +88,10 @@ public class AssistantAgent {
                 return "Navigate to 'Reviews' section on sidebar , select 'by buses travelled' you can add a complaint/review there.";
 
             case COST_INQUIRY:
-                //System.out.println(last);
-
-                String output =  llm.callOpenAI(
+                // Stops found by the rules or the structured call need no extraction prompt
+                String output = classified.hasSourceAndDestination()
+                        ? classified.source() + ":" + classified.destination()
+                        : classified.extracted() ? "UNCLEAR" : ask(intent, last,
                         """
                                 Your task is to extract the source and destination city names from the sentence below. The sentence starts with 'user:', which you must ignore.
                                            
@@ -107,6 +122,8 @@ public class AssistantAgent {
 
                 System.out.println(output);
                 String[] srcDst = output.split(":");
+                if (srcDst.length < 2)
+                    return "Tell me your source & destination — I’ll check prices for you.";
                 for(String s : srcDst) {
                     if(s.equalsIgnoreCase("unclear"))
                         return "Tell me your source & destination — I’ll check prices for you.";
@@ -125,7 +142,9 @@ public class AssistantAgent {
                 return output;
 
             case FIND_ROUTE, CHECK_AVAILABLE_BUSES:
-                String reply =  llm.callOpenAI(
+                String[] data = classified.extracted()
+                        ? new String[]{orUnclear(classified.source()), orUnclear(classified.destination()), orUnclear(classified.time())}
+                        : ask(intent, userInput,
                         """
                  Your task is to extract the **source**, **destination**, and **time** from the conversation below. Each sentence starts with 'user:' or 'bot:', which you must ignore.
                  
@@ -193,11 +212,10 @@ public class AssistantAgent {
                  """.formatted(userInput)
 
 
-                );
-                System.out.println(reply);
-                String[] data = reply.split(":");
-                //for(String s:data) System.out.println(s);
+                ).split(":");
 
+                if (data.length < 3)
+                    return "Can you clarify your source and destination please?";
                 if(data[0].equalsIgnoreCase("unclear") || data[1].equalsIgnoreCase("unclear"))
                     return "Can you clarify your source and destination please?";
                 if(data[2].equalsIgnoreCase("unclear"))
@@ -208,14 +226,14 @@ public class AssistantAgent {
                 String source = capitalize(data[0].trim());
                 String destination = capitalize(data[1].trim());
 
-                List<Route> routes = routeRepository.findRoutesContainingBothStops(source,destination);
+                List<Route> routes = routeService.getRoutesContainingSourceAndDestination(source,destination);
                 if(routes.size() == 0)
                     return "Sorry, we don't have any bus service from mentioned source to destination.";
 
                 String timeCategory = data[2].toLowerCase();
                 List<String> responses = new ArrayList<>();
 
-                List<Bus> buses = busRepository.findByRouteIn(routes);
+                List<Bus> buses = routeService.getBusesOnRoutes(routes);
 
                 for (Bus bus :buses ) {
                     System.out.println(bus.getStartTime());
@@ -239,7 +257,8 @@ public class AssistantAgent {
                 return String.join("\n", responses);
 
             case BUS_INQUIRY:
-                String busName =  llm.callOpenAI(
+                String busName = classified.busName() != null ? classified.busName()
+                        : classified.extracted() ? "UNCLEAR" : ask(intent, last,
                         """
                             Your task is to extract the **bus or company name** from the sentence below. The sentence starts with 'user:', which you must ignore.
                             
@@ -259,22 +278,14 @@ public class AssistantAgent {
                 if(busName.equalsIgnoreCase("UNCLEAR"))
                     return "Could you please specify what bus are you looking for?";
 
-                double rating = 0.0;
                 Page<Bus> p = busRepository.findSpecificCompanyBus(busName, Pageable.ofSize(1));
 
                 if(p.hasContent()){
-                    List<Bus> allBusesOfSpecificCompany = busRepository.findByCompanyNameIgnoreCase(busName);
-                    List<Integer> busIds = new ArrayList<>();
-                    for(Bus bus : allBusesOfSpecificCompany) busIds.add(bus.getBusId());
+                    // Company totals come from the rating aggregates, no review is loaded
+                    RatingSummaryResponse rating = ratingAggregateService.companyRating(busName);
+                    String formatted = String.format("%.2f", rating.getAverageStars());
 
-                    List<Review> reviews = reviewRepository.findByBusBusIdIn(busIds);
-
-                    for(Review review : reviews)
-                        rating += review.getStars();
-                    rating = rating / reviews.size();
-                    String formatted = String.format("%.2f", rating);
-
-                    String finalRating = rating == 0? "N/A" : String.valueOf(formatted);
+                    String finalRating = rating.getReviewCount() == 0? "N/A" : String.valueOf(formatted);
 
                     return "Of course! " + busName + " tickets are available on our platform. With an average bus rating of " + finalRating + " /5.";
                 }
@@ -284,6 +295,15 @@ public class AssistantAgent {
                 return "Sorry, something went wrong while processing your request.";
         }
     }
+    // The LLM's answer to a prompt built from text, shared by every question that normalizes to the same text
+    private String ask(IntentType intent, String text, String prompt) {
+        return responseCache.get(intent.name(), text, () -> llm.callOpenAI(prompt));
+    }
+
+    private static String orUnclear(String slot) {
+        return slot != null ? slot : "unclear";
+    }
+
     private static String capitalize(String input) {
         if (input == null || input.isEmpty()) return input;
         return input.substring(0, 1).toUpperCase() + input.substring(1).toLowerCase();
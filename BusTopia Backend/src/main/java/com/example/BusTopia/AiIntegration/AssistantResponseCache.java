@@ -0,0 +1,117 @@
+package com.example.BusTopia.AiIntegration;
+
+import com.example.BusTopia.RedisConfiguration.RedisAssistantResponseCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * LLM answers of the assistant keyed by prompt kind and the normalized text the prompt was built from,
+ * so "Dhaka to Bogura price?" and "dhaka to bogura price" share one classification and one extraction.
+ * Entries live for a TTL in a size-bounded local map; with assistant.cache.redis=true misses fall through
+ * to a Redis tier shared by all instances. UNKNOWN answers are failures or rejections and are never kept.
+ * Lookups are counted in assistant.cache.lookups by result, assistant.cache.hit_ratio gauges the hit rate.
+ */
+@Service
+public class AssistantResponseCache {
+
+    private static final Pattern NOT_WORD = Pattern.compile("[^\\p{L}\\p{N}:]+");
+
+    private final ObjectProvider<RedisAssistantResponseCache> redisTier;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> answers = new ConcurrentHashMap<>();
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    private record Entry(String answer, long expiresAtNanos) {}
+
+    public AssistantResponseCache(ObjectProvider<RedisAssistantResponseCache> redisTier,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${assistant.cache.ttl-seconds:3600}") long ttlSeconds,
+                                  @Value("${assistant.cache.max-entries:5000}") int maxEntries) {
+        this.redisTier = redisTier;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.maxEntries = maxEntries;
+        this.localHits = meterRegistry.counter("assistant.cache.lookups", "result", "local_hit");
+        this.redisHits = meterRegistry.counter("assistant.cache.lookups", "result", "redis_hit");
+        this.misses = meterRegistry.counter("assistant.cache.lookups", "result", "miss");
+        meterRegistry.gauge("assistant.cache.hit_ratio", this, cache -> cache.hitRatio());
+    }
+
+    // The cached answer for this kind and text, or the loader's answer, which is kept unless it is UNKNOWN
+    public String get(String kind, String text, Supplier<String> loader) {
+        String key = key(kind, text);
+        long now = System.nanoTime();
+        Entry entry = answers.get(key);
+        if (entry != null && now - entry.expiresAtNanos() < 0) {
+            localHits.increment();
+            return entry.answer();
+        }
+
+        RedisAssistantResponseCache redis = redisTier.getIfAvailable();
+        if (redis != null) {
+            String shared = redis.get(key);
+            if (shared != null) {
+                redisHits.increment();
+                putLocal(key, shared, now);
+                return shared;
+            }
+        }
+
+        misses.increment();
+        String answer = loader.get();
+        if (answer == null || answer.isBlank() || answer.equalsIgnoreCase(LLMService.UNKNOWN)) {
+            return answer;
+        }
+        putLocal(key, answer, now);
+        if (redis != null) {
+            redis.put(key, answer, ttlNanos / 1_000_000_000L);
+        }
+        return answer;
+    }
+
+    public double hitRatio() {
+        double hits = localHits.count() + redisHits.count();
+        double lookups = hits + misses.count();
+        return lookups == 0 ? 0.0 : hits / lookups;
+    }
+
+    // Lower case, punctuation and repeated blanks dropped; the "user:" and "bot:" markers are kept
+    static String normalize(String text) {
+        if (text == null) return "";
+        return NOT_WORD.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static String key(String kind, String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((kind + "|" + normalize(text)).getBytes(StandardCharsets.UTF_8));
+            return kind + ":" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void putLocal(String key, String answer, long now) {
+        if (answers.size() >= maxEntries) {
+            answers.values().removeIf(cached -> now - cached.expiresAtNanos() >= 0);
+            if (answers.size() >= maxEntries) answers.clear();
+        }
+        answers.put(key, new Entry(answer, now + ttlNanos));
+    }
+}
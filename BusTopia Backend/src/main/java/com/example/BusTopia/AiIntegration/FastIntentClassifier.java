@@ -0,0 +1,161 @@
+package com.example.BusTopia.AiIntegration;
+
+import com.example.BusTopia.MySqlRepositories.BusRepository;
+import com.example.BusTopia.MySqlRepositories.PriceMappingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * First stage of intent classification: keyword rules and a gazetteer of stop and company names
+ * resolve the messages that need no language model, like greetings, "cancel my ticket", "how do I book"
+ * or "Dhaka to Bogura price", together with their stops or company. Anything ambiguous is left to the LLM.
+ * The gazetteer is loaded from price_mapping and bus at startup and refreshed every few minutes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FastIntentClassifier {
+
+    private static final Pattern NOT_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern SPEAKER = Pattern.compile("^\\s*user\\s*:", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern GREETING = Pattern.compile(
+            "(hi|hello|hey|hi there|hello there|good (morning|afternoon|evening)|thanks|thank you|thank you so much" +
+            "|thanks a lot|ok|okay|ok thanks|okay thanks|cool|great|nice|bye|goodbye|see you)( bot)?");
+    private static final Pattern CANCEL = Pattern.compile("\\b(cancel|cancell?ation|undo (my )?booking|refund)\\b");
+    private static final Pattern BOOK = Pattern.compile("\\b(how|where)\\b.*\\b(book|reserve|buy)\\b");
+    private static final Pattern PRICE = Pattern.compile("\\b(price|prices|cost|costs|fare|fares|how much)\\b");
+    private static final Pattern ROUTE_OR_TIME = Pattern.compile(
+            "\\b(route|routes|go|going|travel|when|time|today|tomorrow|tonight|morning|noon|evening|night|available|schedule)\\b");
+    private static final Pattern OTHER_TOPICS = Pattern.compile("\\b(review|reviews|rating|ratings|complain|complaint|cancel|book)\\b");
+    // Dropped from company names so "Green Line" and "GreenLine" find "Green Line Paribahan"
+    private static final Pattern COMPANY_SUFFIX = Pattern.compile(" (paribahan|poribohon|travels|transport|express|enterprise|service)$");
+
+    private final PriceMappingRepository priceMappingRepository;
+    private final BusRepository busRepository;
+
+    private volatile Gazetteer gazetteer = new Gazetteer(Map.of(), 0, Map.of(), 0);
+
+    // stops by their normalized words, longest stop name in words; companies by their blank-free normalized name,
+    // longest company name in words
+    private record Gazetteer(Map<String, String> stops, int maxStopWords, Map<String, String> companies, int maxCompanyWords) {}
+
+    private record StopMention(String stop, int position) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${assistant.fast-intent.refresh-ms:600000}",
+            fixedDelayString = "${assistant.fast-intent.refresh-ms:600000}")
+    public void refresh() {
+        Map<String, String> stops = new HashMap<>();
+        int maxStopWords = 0;
+        for (String stop : priceMappingRepository.findAllDistinctStops()) {
+            String normalized = normalize(stop);
+            if (normalized.isEmpty()) continue;
+            stops.putIfAbsent(normalized, stop);
+            maxStopWords = Math.max(maxStopWords, normalized.split(" ").length);
+        }
+
+        Map<String, String> companies = new HashMap<>();
+        int maxCompanyWords = 0;
+        for (String company : busRepository.findDistinctCompanyNames()) {
+            String normalized = normalize(company);
+            if (normalized.isEmpty()) continue;
+            companies.putIfAbsent(normalized.replace(" ", ""), company);
+            maxCompanyWords = Math.max(maxCompanyWords, normalized.split(" ").length);
+            String shortName = COMPANY_SUFFIX.matcher(normalized).replaceAll("").replace(" ", "");
+            if (shortName.length() >= 4) companies.putIfAbsent(shortName, company);
+        }
+
+        gazetteer = new Gazetteer(Map.copyOf(stops), maxStopWords, Map.copyOf(companies), maxCompanyWords);
+        log.info("Assistant gazetteer loaded with {} stops and {} company names", stops.size(), companies.size());
+    }
+
+    // The intent of the message when the rules are sure of it, empty when the LLM has to decide
+    public Optional<IntentResult> classify(String lastUserMessage) {
+        String text = normalize(SPEAKER.matcher(lastUserMessage == null ? "" : lastUserMessage).replaceFirst(""));
+        if (text.isEmpty()) return Optional.empty();
+
+        if (GREETING.matcher(text).matches()) {
+            return Optional.of(IntentResult.of(IntentType.SMALL_TALK));
+        }
+
+        boolean asksPrice = PRICE.matcher(text).find();
+        if (CANCEL.matcher(text).find() && !asksPrice) {
+            return Optional.of(IntentResult.of(IntentType.CANCEL_TICKET));
+        }
+        if (BOOK.matcher(text).find() && !asksPrice) {
+            return Optional.of(IntentResult.of(IntentType.BOOK_TICKET));
+        }
+
+        Gazetteer current = gazetteer;
+        List<StopMention> stops = findStops(text, current);
+        String company = findCompany(text, current);
+
+        if (asksPrice && company == null && stops.size() == 2 && !OTHER_TOPICS.matcher(text).find()) {
+            String[] words = text.split(" ");
+            StopMention first = stops.get(0);
+            StopMention second = stops.get(1);
+            // "to Bogura from Dhaka" names the destination first
+            boolean reversed = first.position() > 0 && words[first.position() - 1].equals("to")
+                    && second.position() > 0 && words[second.position() - 1].equals("from");
+            return Optional.of(reversed
+                    ? new IntentResult(IntentType.COST_INQUIRY, second.stop(), first.stop(), null, null, null, true)
+                    : new IntentResult(IntentType.COST_INQUIRY, first.stop(), second.stop(), null, null, null, true));
+        }
+
+        if (company != null && stops.isEmpty() && !asksPrice
+                && !ROUTE_OR_TIME.matcher(text).find() && !OTHER_TOPICS.matcher(text).find()) {
+            return Optional.of(new IntentResult(IntentType.BUS_INQUIRY, null, null, null, company, null, true));
+        }
+        return Optional.empty();
+    }
+
+    // Distinct stops named in the text in order of appearance, longest name first where names overlap
+    private static List<StopMention> findStops(String text, Gazetteer current) {
+        if (current.stops().isEmpty()) return List.of();
+        String[] words = text.split(" ");
+        List<StopMention> found = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        int i = 0;
+        while (i < words.length) {
+            int matchedWords = 0;
+            for (int n = Math.min(current.maxStopWords(), words.length - i); n >= 1 && matchedWords == 0; n--) {
+                String stop = current.stops().get(String.join(" ", Arrays.copyOfRange(words, i, i + n)));
+                if (stop != null) {
+                    if (seen.add(stop)) found.add(new StopMention(stop, i));
+                    matchedWords = n;
+                }
+            }
+            i += Math.max(matchedWords, 1);
+        }
+        return found;
+    }
+
+    // The one company named in the text, null when none or several are. Runs of whole words are joined
+    // without blanks, so "green line" and "greenline" both match while "bangladesh" does not match "desh"
+    private static String findCompany(String text, Gazetteer current) {
+        if (current.companies().isEmpty()) return null;
+        String[] words = text.split(" ");
+        String match = null;
+        for (int i = 0; i < words.length; i++) {
+            for (int n = 1; n <= Math.min(current.maxCompanyWords(), words.length - i); n++) {
+                String company = current.companies().get(String.join("", Arrays.copyOfRange(words, i, i + n)));
+                if (company == null) continue;
+                if (match != null && !match.equals(company)) return null;
+                match = company;
+            }
+        }
+        return match;
+    }
+
+    private static String normalize(String text) {
+        return NOT_WORD.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
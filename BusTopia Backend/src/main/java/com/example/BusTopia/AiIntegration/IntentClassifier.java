@@ -1,24 +1,132 @@
 package com.example.BusTopia.AiIntegration;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class IntentClassifier {
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // What models write for a slot they could not fill
+    private static final Set<String> NO_VALUE = Set.of("unclear", "unknown", "none", "null", "n/a");
+    private static final int MAX_SLOT_LENGTH = 80;
+    private static final int MAX_REPLY_LENGTH = 1000;
+
     private final LLMService llmService;
+    private final AssistantResponseCache responseCache;
+    private final FastIntentClassifier fastClassifier;
+    private final boolean structuredExtraction;
+
+    private final Counter localTurns;
+    private final Counter llmTurns;
+    private final Counter structuredFallbacks;
 
-    public IntentClassifier(LLMService llmService) {
+    public IntentClassifier(LLMService llmService, AssistantResponseCache responseCache,
+                            FastIntentClassifier fastClassifier, MeterRegistry meterRegistry,
+                            @Value("${assistant.structured-extraction:true}") boolean structuredExtraction) {
         this.llmService = llmService;
+        this.responseCache = responseCache;
+        this.fastClassifier = fastClassifier;
+        this.structuredExtraction = structuredExtraction;
+        this.localTurns = meterRegistry.counter("assistant.intent.turns", "path", "local");
+        this.llmTurns = meterRegistry.counter("assistant.intent.turns", "path", "llm");
+        this.structuredFallbacks = meterRegistry.counter("assistant.intent.structured_fallbacks");
+        meterRegistry.gauge("assistant.intent.local_ratio", this, classifier -> classifier.localRatio());
+    }
+
+    public IntentResult classify(String userInput, String lastUserMessage) {
+        Optional<IntentResult> local = fastClassifier.classify(lastUserMessage);
+        if (local.isPresent()) {
+            localTurns.increment();
+            return local.get();
+        }
+        llmTurns.increment();
+
+        if (structuredExtraction) {
+            IntentResult structured = classifyStructured(userInput);
+            if (structured != null) return structured;
+            structuredFallbacks.increment();
+        }
+
+        // Keyed by the whole conversation, a follow-up like "Bogura to Dhaka" depends on the turns before it
+        String response = responseCache.get("intent", userInput, () -> llmService.callOpenAI(buildPrompt(userInput)));
+        return IntentResult.of(mapResponse(response));
+    }
+
+    /*
+     * Intent and slots from one JSON mode call; only answers that pass validation are cached.
+     * UNKNOWN when the call itself failed, null when the model answered something that is not a valid result,
+     * in which case the caller falls back to the classification prompt and the agent's extraction prompts.
+     */
+    private IntentResult classifyStructured(String userInput) {
+        AtomicBoolean callFailed = new AtomicBoolean();
+        String json = responseCache.get("structured", userInput, () -> {
+            String raw = llmService.callJson(buildStructuredPrompt(userInput));
+            if (raw.equals(LLMService.UNKNOWN)) {
+                callFailed.set(true);
+                return raw;
+            }
+            String repaired = repairJson(raw);
+            return parseStructured(repaired).isPresent() ? repaired : LLMService.UNKNOWN;
+        });
+        if (callFailed.get()) return IntentResult.of(IntentType.UNKNOWN);
+        return parseStructured(json).orElse(null);
+    }
+
+    // The JSON object in a reply that wrapped it in code fences or prose
+    static String repairJson(String raw) {
+        String text = raw.trim();
+        int start = text.indexOf('{');
+        int end = text.lastIndexOf('}');
+        return start >= 0 && end > start ? text.substring(start, end + 1) : text;
+    }
+
+    // The result when the JSON matches the schema: a known intent, and every slot either absent, null or a short string
+    static Optional<IntentResult> parseStructured(String json) {
+        try {
+            JsonNode root = MAPPER.readTree(json);
+            if (root == null || !root.isObject() || !root.path("intent").isTextual()) return Optional.empty();
+            IntentType intent = IntentType.valueOf(root.path("intent").asText().trim().toUpperCase(Locale.ROOT));
+
+            String source = slot(root, "source", MAX_SLOT_LENGTH);
+            String destination = slot(root, "destination", MAX_SLOT_LENGTH);
+            if (source != null && source.equalsIgnoreCase(destination)) {
+                source = null;
+                destination = null;
+            }
+            String time = slot(root, "time", MAX_SLOT_LENGTH);
+            String busName = slot(root, "busName", MAX_SLOT_LENGTH);
+            String reply = slot(root, "reply", MAX_REPLY_LENGTH);
+            return Optional.of(new IntentResult(intent, source, destination,
+                    time != null ? time.toLowerCase(Locale.ROOT) : null, busName, reply, true));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String slot(JsonNode root, String name, int maxLength) {
+        JsonNode node = root.get(name);
+        if (node == null || node.isNull()) return null;
+        if (!node.isTextual()) throw new IllegalArgumentException(name + " is not a string");
+        String value = node.asText().trim();
+        if (value.isEmpty() || NO_VALUE.contains(value.toLowerCase(Locale.ROOT))) return null;
+        if (value.length() > maxLength) throw new IllegalArgumentException(name + " is too long");
+        return value;
     }
 
-    public List<Object> classify(String userInput) {
-        String prompt = buildPrompt(userInput);
-        //System.out.println(prompt);
-        String response = llmService.callOpenAI(prompt);
-        //System.out.println(response);
-        return List.of(mapResponse(response),userInput);
+    // Fraction of turns the rules classified without the LLM
+    public double localRatio() {
+        double turns = localTurns.count() + llmTurns.count();
+        return turns == 0 ? 0.0 : localTurns.count() / turns;
     }
 
     private String buildPrompt(String conversation) {
@@ -95,6 +203,55 @@ public class IntentClassifier {
                 """.formatted(conversation);
     }
 
+    private String buildStructuredPrompt(String conversation) {
+        return """
+                You are the assistant of a bus ticketing site. Read the conversation below, where each line starts with "user:" or "bot:",
+                and describe the **latest user message** as one JSON object. Use the earlier lines only as context.
+
+                INTENT, exactly one of:
+                - SMALL_TALK: greetings, thanks, compliments, polite expressions ("hi", "thanks", "okay", "cool"); this wins over earlier topics
+                - CANCEL_TICKET: cancel, remove, undo booking
+                - BOOK_TICKET: book, reserve, buy a ticket (not about cost)
+                - COST_INQUIRY: price, cost, fare, how much
+                - FIND_ROUTE: routes, how to go from X to Y, going, travelling or visiting a place
+                - CHECK_AVAILABLE_BUSES: which buses are available
+                - BUS_INQUIRY: asks about a specific bus company or service by name
+                - REVIEWS: reviews, ratings, satisfaction
+                - COMPLAIN: complaints, bad experience, how to submit a complaint
+                - UNKNOWN: anything else
+
+                SLOTS, each a string or null. Never guess or invent a value; use null when the conversation does not give it:
+                - source: the place the user travels from
+                - destination: the place the user travels to
+                - time: when the user wants to travel, one lowercase word or phrase such as morning, noon, evening, night, tomorrow, 7:30
+                - busName: the bus or company name exactly as written, only for BUS_INQUIRY
+                - reply: only for SMALL_TALK, a short natural answer to the message; otherwise null
+
+                Examples:
+                user: How much are Dhaka-Bogura tickets?
+                {"intent":"COST_INQUIRY","source":"dhaka","destination":"bogura","time":null,"busName":null,"reply":null}
+
+                user: What's the cost of Dhaka tickets?
+                bot: Tell me your source & destination
+                user: Bogura to Dhaka
+                {"intent":"COST_INQUIRY","source":"bogura","destination":"dhaka","time":null,"busName":null,"reply":null}
+
+                user: I want to go from Khulna to Rajshahi on Monday at 6pm
+                {"intent":"FIND_ROUTE","source":"khulna","destination":"rajshahi","time":"monday 6pm","busName":null,"reply":null}
+
+                user: show me buses to Sylhet tomorrow
+                {"intent":"CHECK_AVAILABLE_BUSES","source":null,"destination":"sylhet","time":"tomorrow","busName":null,"reply":null}
+
+                user: Are Shyamoli Paribahan buses available here?
+                {"intent":"BUS_INQUIRY","source":null,"destination":null,"time":null,"busName":"Shyamoli Paribahan","reply":null}
+
+                Conversation:
+                %s
+
+                Respond ONLY with the JSON object, with the keys intent, source, destination, time, busName and reply.
+                """.formatted(conversation);
+    }
+
     private IntentType mapResponse(String response) {
         try {
             return IntentType.valueOf(response.trim().toUpperCase());
@@ -0,0 +1,19 @@
+package com.example.BusTopia.AiIntegration;
+
+/**
+ * The intent of the latest user message, with whatever slots were resolved along with it; unresolved slots are null.
+ * When extracted is set the slots come from an extraction of the message, so a null slot means the user did not
+ * give it; otherwise they were never looked for and the agent still has to run its extraction prompt.
+ * reply is the answer to small talk, when the model wrote one along with the intent.
+ */
+public record IntentResult(IntentType intent, String source, String destination, String time, String busName,
+                           String reply, boolean extracted) {
+
+    public static IntentResult of(IntentType intent) {
+        return new IntentResult(intent, null, null, null, null, null, false);
+    }
+
+    public boolean hasSourceAndDestination() {
+        return source != null && destination != null;
+    }
+}
@@ -1,59 +1,261 @@
 package com.example.BusTopia.AiIntegration;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
+import okio.BufferedSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Gateway to the Groq chat completions API. Calls go out on OkHttp's dispatcher over a shared connection pool
+ * and complete a CompletableFuture, so no caller thread waits on the network.
+ * At most llm.max-in-flight calls run at once, further calls get UNKNOWN straight away instead of queueing.
+ * 429 and 5xx answers are retried with jittered exponential backoff, honouring Retry-After.
+ * Replies can also be streamed token by token. Latency of every call is recorded in the llm.call timer, tagged with its outcome.
+ */
 @Service
+@Slf4j
 public class LLMService {
 
-    @Value("${groq.api.key}")
-    private String apiKey;
+    public static final String UNKNOWN = "UNKNOWN";
+
+    private static final MediaType JSON = MediaType.get("application/json");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String apiKey;
+    private final String apiUrl;
+    private final String model;
+    private final int maxRetries;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+
+    private final OkHttpClient client;
+    private final Semaphore inFlight;
+    private final ScheduledExecutorService retryScheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("llm-retry").factory());
+
+    private final MeterRegistry meterRegistry;
+    private final Counter retries;
 
-    @Value("${groq.api.url}")
-    private String apiUrl;
+    public LLMService(@Value("${groq.api.key}") String apiKey,
+                      @Value("${groq.api.url}") String apiUrl,
+                      @Value("${llm.model:llama3-8b-8192}") String model,
+                      @Value("${llm.connect-timeout-ms:2000}") long connectTimeoutMillis,
+                      @Value("${llm.read-timeout-ms:15000}") long readTimeoutMillis,
+                      @Value("${llm.call-timeout-ms:20000}") long callTimeoutMillis,
+                      @Value("${llm.max-in-flight:16}") int maxInFlight,
+                      @Value("${llm.max-retries:2}") int maxRetries,
+                      @Value("${llm.backoff-base-ms:250}") long backoffBaseMillis,
+                      @Value("${llm.backoff-max-ms:4000}") long backoffMaxMillis,
+                      MeterRegistry meterRegistry) {
+        this.apiKey = apiKey;
+        this.apiUrl = apiUrl;
+        this.model = model;
+        this.maxRetries = maxRetries;
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+        this.inFlight = new Semaphore(maxInFlight);
 
-    private final OkHttpClient client = new OkHttpClient();
-    private final MediaType mediaType = MediaType.get("application/json");
+        // Every call goes to the one Groq host, the default of 5 requests per host would queue behind the bulkhead
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxInFlight);
+        dispatcher.setMaxRequestsPerHost(maxInFlight);
+        this.client = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxInFlight, 5, TimeUnit.MINUTES))
+                .connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+                .writeTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                .callTimeout(callTimeoutMillis, TimeUnit.MILLISECONDS)
+                .retryOnConnectionFailure(true)
+                .build();
 
+        this.meterRegistry = meterRegistry;
+        this.retries = meterRegistry.counter("llm.call.retries");
+        meterRegistry.gauge("llm.call.in_flight", inFlight, permits -> maxInFlight - permits.availablePermits());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    // Blocking form for callers that still need the answer on their own thread, UNKNOWN when the call fails
     public String callOpenAI(String prompt) {
+        return completeAsync(prompt).join();
+    }
+
+    // Like callOpenAI in JSON mode, the reply is a single JSON object; the prompt must ask for JSON
+    public String callJson(String prompt) {
+        return completeAsync(prompt, true).join();
+    }
+
+    public CompletableFuture<String> completeAsync(String prompt) {
+        return completeAsync(prompt, false);
+    }
+
+    // Completes with the model's reply, or UNKNOWN when the call is rejected or fails; never completes exceptionally
+    public CompletableFuture<String> completeAsync(String prompt, boolean json) {
+        return submit(prompt, json, null);
+    }
+
+    /*
+     * Streams the reply, handing each token to onToken on an OkHttp thread as it arrives, and completes with the
+     * whole reply like completeAsync. Retries happen only before the first token, when the status is known.
+     */
+    public CompletableFuture<String> streamAsync(String prompt, Consumer<String> onToken) {
+        return submit(prompt, false, onToken);
+    }
+
+    private CompletableFuture<String> submit(String prompt, boolean json, Consumer<String> onToken) {
+        if (!inFlight.tryAcquire()) {
+            meterRegistry.counter("llm.call.rejected").increment();
+            log.warn("LLM call rejected, the in-flight limit is reached");
+            return CompletableFuture.completedFuture(UNKNOWN);
+        }
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        long startedAt = System.nanoTime();
+
+        Request request;
         try {
-            ObjectMapper mapper = new ObjectMapper();
+            request = buildRequest(prompt, json, onToken != null);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Could not build LLM request", e);
+            finish(result, startedAt, "failure", UNKNOWN);
+            return result;
+        }
+        attempt(request, onToken, 0, result, startedAt);
+        return result;
+    }
+
+    private Request buildRequest(String prompt, boolean json, boolean stream) throws IOException {
+        ObjectNode userMessage = MAPPER.createObjectNode();
+        userMessage.put("role", "user");
+        userMessage.put("content", prompt);
 
-            ObjectNode userMessage = mapper.createObjectNode();
-            userMessage.put("role", "user");
-            userMessage.put("content", prompt);
+        ObjectNode payload = MAPPER.createObjectNode();
+        payload.put("model", model);
+        payload.set("messages", MAPPER.createArrayNode().add(userMessage));
+        payload.put("temperature", 0.2);
+        if (json) {
+            payload.set("response_format", MAPPER.createObjectNode().put("type", "json_object"));
+        }
+        if (stream) {
+            payload.put("stream", true);
+        }
 
-            ObjectNode payload = mapper.createObjectNode();
-            payload.put("model", "llama3-8b-8192"); // ✅ Groq supports llama3-8b/70b or mixtral
-            payload.set("messages", mapper.createArrayNode().add(userMessage));
-            payload.put("temperature", 0.2);
+        return new Request.Builder()
+                .url(apiUrl)
+                .post(RequestBody.create(MAPPER.writeValueAsBytes(payload), JSON))
+                .addHeader("Authorization", "Bearer " + apiKey)
+                .build();
+    }
 
-            String jsonBody = mapper.writeValueAsString(payload);
+    private void attempt(Request request, Consumer<String> onToken, int attempt, CompletableFuture<String> result, long startedAt) {
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (response.isSuccessful() && response.body() != null) {
+                        String reply = onToken != null
+                                ? readStream(response.body().source(), onToken)
+                                : MAPPER.readTree(response.body().string())
+                                        .path("choices").path(0).path("message").path("content").asText().trim();
+                        finish(result, startedAt, "success", reply);
+                        return;
+                    }
+                    String body = response.body() != null ? response.body().string() : "";
+                    int code = response.code();
+                    if ((code == 429 || code >= 500) && attempt < maxRetries) {
+                        retry(request, onToken, attempt, result, startedAt, retryAfterMillis(response));
+                        return;
+                    }
+                    log.warn("Groq error: {} - {}", code, body);
+                    finish(result, startedAt, "http_error", UNKNOWN);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not read LLM response", e);
+                    finish(result, startedAt, "failure", UNKNOWN);
+                }
+            }
 
-            Request request = new Request.Builder()
-                    .url(apiUrl)
-                    .post(RequestBody.create(jsonBody, mediaType))
-                    .addHeader("Authorization", "Bearer " + apiKey)
-                    .addHeader("Content-Type", "application/json")
-                    .build();
+            @Override
+            public void onFailure(Call call, IOException e) {
+                // A timed out call has already used its whole budget, only connection failures are worth another try
+                if (!(e instanceof InterruptedIOException) && attempt < maxRetries) {
+                    retry(request, onToken, attempt, result, startedAt, -1);
+                    return;
+                }
+                log.warn("LLM call failed after {} attempts: {}", attempt + 1, e.toString());
+                finish(result, startedAt, e instanceof InterruptedIOException ? "timeout" : "failure", UNKNOWN);
+            }
+        });
+    }
 
-            Response response = client.newCall(request).execute();
+    private void retry(Request request, Consumer<String> onToken, int attempt, CompletableFuture<String> result,
+                       long startedAt, long retryAfterMillis) {
+        retries.increment();
+        long delay = retryAfterMillis >= 0 ? Math.min(retryAfterMillis, backoffMaxMillis) : backoffMillis(attempt);
+        try {
+            retryScheduler.schedule(() -> attempt(request, onToken, attempt + 1, result, startedAt), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            finish(result, startedAt, "failure", UNKNOWN);
+        }
+    }
 
-            if (!response.isSuccessful()) {
-                System.out.println("Groq error: " + response.code() + " - " + response.body().string());
-                return "UNKNOWN";
+    // Server-sent events of a streamed completion: "data: {chunk}" lines, each with the next delta, until "data: [DONE]"
+    private static String readStream(BufferedSource source, Consumer<String> onToken) throws IOException {
+        StringBuilder reply = new StringBuilder();
+        String line;
+        while ((line = source.readUtf8Line()) != null) {
+            if (!line.startsWith("data:")) continue;
+            String data = line.substring(5).trim();
+            if (data.equals("[DONE]")) break;
+            String token = MAPPER.readTree(data).path("choices").path(0).path("delta").path("content").asText("");
+            if (!token.isEmpty()) {
+                reply.append(token);
+                onToken.accept(token);
             }
+        }
+        return reply.toString().trim();
+    }
 
-            JsonNode root = mapper.readTree(response.body().string());
-            return root.path("choices").get(0).path("message").path("content").asText().trim();
+    // Full jitter: uniform between zero and the exponential ceiling, so retries from a burst spread out
+    long backoffMillis(int attempt) {
+        long ceiling = Math.min(backoffMaxMillis, backoffBaseMillis << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "UNKNOWN";
+    private static long retryAfterMillis(Response response) {
+        String header = response.header("Retry-After");
+        if (header == null) return -1;
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(header.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
         }
     }
+
+    private void finish(CompletableFuture<String> result, long startedAt, String outcome, String reply) {
+        Timer.builder("llm.call")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        // Free the slot before completing, so a caller continuing from the reply can call again straight away
+        inFlight.release();
+        result.complete(reply);
+    }
 }
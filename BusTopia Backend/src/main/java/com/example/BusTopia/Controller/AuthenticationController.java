@@ -12,8 +12,10 @@ import com.example.BusTopia.EmailService.EmailService;
 import com.example.BusTopia.MySqlRepositories.PassResetRepository;
 import com.example.BusTopia.MySqlRepositories.UserRepository;
 import com.example.BusTopia.SecurityConfiguration.JwtUtility;
+import com.example.BusTopia.SecurityConfiguration.JwtVerificationCache;
 import com.example.BusTopia.Services.TempPasswordResetService;
 import com.example.BusTopia.Services.TempRegistrationService;
+import com.example.BusTopia.Services.UserPrincipalCache;
 import com.example.BusTopia.Services.UserService;
 import com.example.BusTopia.Utils.ByteArrayMultipartFile;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -41,6 +43,7 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 
@@ -54,6 +57,9 @@ public class AuthenticationController {
     @Autowired
     private JwtUtility jwtUtility;
 
+    @Autowired
+    private JwtVerificationCache jwtVerificationCache;
+
     @Autowired
     private UserService userService;
 
@@ -66,6 +72,9 @@ public class AuthenticationController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -215,6 +224,7 @@ public class AuthenticationController {
 
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         userRepository.save(user);
+        userPrincipalCache.evict(email);
 
         tempPasswordResetService.deleteToken(token);
 
@@ -226,14 +236,14 @@ public class AuthenticationController {
         if (token == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("No JWT cookie found.");
         }
-        String email = jwtUtility.extractUserName(token);
+        Optional<JwtUtility.VerifiedToken> verified = jwtVerificationCache.verify(token);
 
-        if (email == null) {
+        if (verified.isEmpty() || verified.get().subject() == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token.");
         }
 
-        UserEntity user = userRepository.findByEmail(email);
-        if (user == null || !jwtUtility.validateToken(user, token)) {
+        UserEntity user = userPrincipalCache.get(verified.get().subject(), userRepository::findByEmail);
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized.");
         }
 
@@ -4,6 +4,7 @@ package com.example.BusTopia.Controller;
 import com.example.BusTopia.DTOs.BuyTicket.BookTicketRequest;
 import com.example.BusTopia.DTOs.Payment.PaymentRequest;
 import com.example.BusTopia.Services.TicketService;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.env.Environment;
 import org.springframework.http.*;
@@ -32,7 +33,17 @@ public class PaymentController {
         String apiUrl = "https://sandbox.sslcommerz.com/gwprocess/v4/api.php";
         String tranId = payment.getTranId();
 
-        pendingBookings.put(tranId, payment.getBookingData()); // TEMP STORE
+        BookTicketRequest booking = payment.getBookingData();
+        try {
+            // Reserve the seats for the payment window so nobody else can pay for them
+            ticketService.holdSeats(tranId, booking.getBusId(), booking.getDate(), booking.getSeats());
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+
+        pendingBookings.put(tranId, booking); // TEMP STORE
 
         MultiValueMap<String, String> payload = new LinkedMultiValueMap<>();
         payload.add("store_id", env.getProperty("sslcommerz.store.id"));
@@ -73,10 +84,12 @@ public class PaymentController {
             if ("SUCCESS".equalsIgnoreCase((String) body.get("status"))) {
                 return ResponseEntity.ok(Map.of("url", body.get("GatewayPageURL")));
             } else {
+                discardPendingBooking(tranId);
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                         .body("Payment initiation failed");
             }
         } catch (Exception e) {
+            discardPendingBooking(tranId);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error initiating payment: " + e.getMessage());
         }
@@ -89,7 +102,8 @@ public class PaymentController {
 
         if (booking != null) {
             try {
-                ticketService.bookTicket(
+                ticketService.bookHeldTicket(
+                        tranId,
                         booking.getUserId(),
                         booking.getBusId(),
                         booking.getDate(),
@@ -109,15 +123,21 @@ public class PaymentController {
 
     @PostMapping("/fail")
     public ResponseEntity<Void> handleFail(@RequestParam Map<String, String> params) {
-        pendingBookings.remove(params.get("tran_id"));
+        discardPendingBooking(params.get("tran_id"));
         String redirectUrl = env.getProperty("frontend.origin") + "/payment-result?status=fail";
         return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(redirectUrl)).build();
     }
 
     @PostMapping("/cancel")
     public ResponseEntity<Void> handleCancel(@RequestParam Map<String, String> params) {
-        pendingBookings.remove(params.get("tran_id"));
+        discardPendingBooking(params.get("tran_id"));
         String redirectUrl = env.getProperty("frontend.origin") + "/payment-result?status=cancel";
         return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(redirectUrl)).build();
     }
+
+    private void discardPendingBooking(String tranId) {
+        if (tranId == null) return;
+        pendingBookings.remove(tranId);
+        ticketService.releaseHeldSeats(tranId);
+    }
 }
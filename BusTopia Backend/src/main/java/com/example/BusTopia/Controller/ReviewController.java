@@ -3,8 +3,11 @@ package com.example.BusTopia.Controller;
 import com.example.BusTopia.AwsConfiguration.AwsFileUpload;
 import com.example.BusTopia.DTOs.Review.BusDTOResponse;
 import com.example.BusTopia.DTOs.Review.BusInfoAndReviewResponse;
+import com.example.BusTopia.DTOs.Review.RatingSummaryResponse;
 import com.example.BusTopia.DTOs.Review.ReviewDTOResponse;
+import com.example.BusTopia.DTOs.Review.ReviewPageResponse;
 import com.example.BusTopia.DTOs.Review.ReviewRequest;
+import com.example.BusTopia.Services.RatingAggregateService;
 import com.example.BusTopia.Services.ReviewService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
@@ -21,10 +24,12 @@ public class ReviewController {
 
     private final ReviewService reviewService;
     private final AwsFileUpload awsFileUpload;
+    private final RatingAggregateService ratingAggregateService;
 
-    public ReviewController(ReviewService reviewService, AwsFileUpload awsFileUpload) {
+    public ReviewController(ReviewService reviewService, AwsFileUpload awsFileUpload, RatingAggregateService ratingAggregateService) {
         this.reviewService = reviewService;
         this.awsFileUpload = awsFileUpload;
+        this.ratingAggregateService = ratingAggregateService;
     }
 
     @GetMapping("/getAllCompanies")
@@ -50,12 +55,37 @@ public class ReviewController {
         return ResponseEntity.ok(reviews);
     }
 
+    // Pages through the same reviews, newest first, for clients that load more on demand
+    @GetMapping("/reviews/feed")
+    public ResponseEntity<?> getReviewFeed(@RequestParam int busId,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "20") int size) {
+        try {
+            ReviewPageResponse page = reviewService.getReviewFeed(busId, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/getReviewsByLicenseNo")
     public ResponseEntity<?> getReviewsByLicenseNo(@Valid @RequestParam String licenseNo, @RequestParam int userId) {
         BusInfoAndReviewResponse response = reviewService.getReviewsByLicenseNo(licenseNo, userId);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/reviews/rating")
+    public ResponseEntity<?> getBusRating(@RequestParam int busId) {
+        RatingSummaryResponse rating = ratingAggregateService.busRating(busId);
+        return ResponseEntity.ok(rating);
+    }
+
+    @GetMapping("/reviews/company-rating")
+    public ResponseEntity<?> getCompanyRating(@RequestParam String companyName) {
+        RatingSummaryResponse rating = ratingAggregateService.companyRating(companyName);
+        return ResponseEntity.ok(rating);
+    }
+
     @GetMapping("/getTravelledBuses")
     public ResponseEntity<?> getTravelledBuses(@Valid @RequestParam int userId ) {
         List<BusDTOResponse> busList = reviewService.getTravelledBuses(userId);
@@ -1,5 +1,6 @@
 package com.example.BusTopia.Controller;
 
+import com.example.BusTopia.DTOs.SeatAvailability.SeatStatusResponse;
 import com.example.BusTopia.Services.SeatAvailabilityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -28,4 +29,14 @@ public class SeatAvailabilityController {
                 .map(bookedSeats -> ResponseEntity.ok(bookedSeats))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    // Booked and payment-held seats reported separately
+    @GetMapping("/bus/{busId}/date/{journeyDate}/status")
+    public ResponseEntity<SeatStatusResponse> getSeatStatus(
+            @PathVariable Integer busId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate journeyDate) {
+        return seatAvailabilityService.getSeatStatusByBusIdAndDate(busId, journeyDate)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -1,15 +1,18 @@
 package com.example.BusTopia.Controller;
 
 import com.example.BusTopia.DTOs.BuyTicket.BookTicketRequest;
+import com.example.BusTopia.DTOs.BuyTicket.TicketResponse;
 import com.example.BusTopia.DatabaseEntity.Ticket;
-import com.example.BusTopia.DatabaseEntity.UserEntity;
-import com.example.BusTopia.MySqlRepositories.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.example.BusTopia.Services.AnalyticsExportService;
 import com.example.BusTopia.Services.TicketService;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 @RestController
@@ -17,12 +20,10 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class TicketController {
     private final TicketService ticketService;
-
-    @Autowired
-    private UserRepository userRepository;
+    private final AnalyticsExportService analyticsExportService;
 
     @PostMapping("/book")
-    public ResponseEntity<Ticket> book(@RequestBody BookTicketRequest req) {
+    public ResponseEntity<TicketResponse> book(@RequestBody BookTicketRequest req) {
         System.out.println(req);
         Ticket ticket = ticketService.bookTicket(
                 req.getUserId(),
@@ -33,7 +34,7 @@ public class TicketController {
                 req.getDestination(),
                 req.getSeats()
         );
-        return ResponseEntity.ok(ticket);
+        return ResponseEntity.ok(TicketResponse.from(ticket));
     }
 
     @PostMapping("/cancel")
@@ -45,8 +46,7 @@ public class TicketController {
 
     @GetMapping("/user")
     public ResponseEntity<?> getTicketsByUserId(@RequestParam("userId") Long userId) {
-        UserEntity user = userRepository.findById(userId).get();
-        return ResponseEntity.ok(ticketService.getTicketsByUser(user));
+        return ResponseEntity.ok(ticketService.getTicketHistory(userId));
     }
 
     @GetMapping("/admin/ticket-sales")
@@ -54,13 +54,46 @@ public class TicketController {
         return ResponseEntity.ok(ticketService.getTicketSalesForAdmin());
     }
 
+    // format=json (default), ndjson or csv; streamed so the export never sits in memory as a whole
     @GetMapping("/admin/all-tickets")
-    public ResponseEntity<?> getAllTickets() {
-        return ResponseEntity.ok(ticketService.getAllTicketsForAnalytics());
+    public ResponseEntity<?> getAllTickets(@RequestParam(value = "format", defaultValue = "json") String format) {
+        AnalyticsExportService.Format exportFormat;
+        try {
+            exportFormat = AnalyticsExportService.Format.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        StreamingResponseBody body = out -> analyticsExportService.writeTickets(out, exportFormat);
+        return exportResponse(exportFormat, "tickets.csv", body);
     }
 
+    // Same formats as all-tickets, optionally limited to reviews written between from and to (yyyy-MM-dd) or to one company
     @GetMapping("/admin/all-reviews")
-    public ResponseEntity<?> getAllReviews() {
-        return ResponseEntity.ok(ticketService.getAllReviewsForAnalytics());
+    public ResponseEntity<?> getAllReviews(@RequestParam(value = "format", defaultValue = "json") String format,
+                                           @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                           @RequestParam(value = "company", required = false) String company) {
+        AnalyticsExportService.Format exportFormat;
+        try {
+            exportFormat = AnalyticsExportService.Format.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().body("'from' must not be after 'to'");
+        }
+
+        StreamingResponseBody body = out -> analyticsExportService.writeReviews(out, exportFormat, from, to, company);
+        return exportResponse(exportFormat, "reviews.csv", body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> exportResponse(AnalyticsExportService.Format format, String csvFileName,
+                                                                        StreamingResponseBody body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(format.mediaType());
+        if (format == AnalyticsExportService.Format.CSV) {
+            response.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + csvFileName + "\"");
+        }
+        return response.body(body);
     }
 }
@@ -0,0 +1,7 @@
+package com.example.BusTopia.DTOs.Admin;
+
+import java.time.LocalDateTime;
+
+// Outcome of one PriceUpdaterScheduler run
+public record PriceUpdateReport(LocalDateTime startedAt, long durationMs, int mappingsChecked, int rowsChanged) {
+}
@@ -0,0 +1,8 @@
+package com.example.BusTopia.DTOs.Admin;
+
+import java.time.LocalDateTime;
+
+// One review of the admin analytics export, joined to its bus only for the company name and license number
+public record ReviewExportRow(Integer reviewId, String message, int stars, LocalDateTime reviewTime,
+                              String companyName, String licenseNo) {
+}
@@ -0,0 +1,8 @@
+package com.example.BusTopia.DTOs.Admin;
+
+import java.time.LocalDate;
+
+// One ticket of the admin analytics export, read straight from the columns without loading Ticket entities
+public record TicketExportRow(Integer ticketId, String companyName, Integer price, String source,
+                              String destination, LocalDate date, String status) {
+}
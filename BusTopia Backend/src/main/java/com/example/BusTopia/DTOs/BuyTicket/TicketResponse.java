@@ -0,0 +1,20 @@
+package com.example.BusTopia.DTOs.BuyTicket;
+
+import com.example.BusTopia.DatabaseEntity.Ticket;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+// A ticket as the passenger sees it, with the few bus fields shown next to it and nothing of the user
+public record TicketResponse(Integer ticketId, String ticketCode, Integer busId, String companyName, String licenseNo,
+                             String category, LocalDate date, LocalTime scheduledTime, String source, String destination,
+                             List<String> seats, Integer price, LocalTime bookingTime, String status) {
+
+    public static TicketResponse from(Ticket ticket) {
+        return new TicketResponse(ticket.getTicketId(), ticket.getTicketCode(), ticket.getBus().getBusId(),
+                ticket.getBus().getCompanyName(), ticket.getBus().getLicenseNo(), ticket.getBus().getCategory(),
+                ticket.getDate(), ticket.getScheduledTime(), ticket.getSource(), ticket.getDestination(),
+                ticket.getSeats(), ticket.getPrice(), ticket.getBookingTime(), ticket.getStatus());
+    }
+}
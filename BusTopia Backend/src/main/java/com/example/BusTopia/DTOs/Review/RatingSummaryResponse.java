@@ -0,0 +1,17 @@
+package com.example.BusTopia.DTOs.Review;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class RatingSummaryResponse {
+    private long reviewCount;
+    private double averageStars;
+    // starCounts.get(0) is the number of 1-star reviews, up to 5 stars
+    private List<Long> starCounts;
+    private LocalDateTime lastReviewTime;
+}
@@ -0,0 +1,9 @@
+package com.example.BusTopia.DTOs.Review;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One review of a bus's review feed with just the author fields the page shows, no UserEntity is loaded
+public record ReviewFeedRow(Integer reviewId, String message, long userId, String userPhoto, LocalDateTime reviewTime,
+                            int stars, List<String> images, String userName) {
+}
@@ -0,0 +1,14 @@
+package com.example.BusTopia.DTOs.Review;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ReviewPageResponse {
+    private List<ReviewDTOResponse> reviews;
+    // Pass back as cursor for the next, older page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,14 @@
+package com.example.BusTopia.DTOs.SeatAvailability;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class SeatStatusResponse {
+    private Map<String, Long> bookedSeats;
+    private List<String> heldSeats;
+}
@@ -0,0 +1,35 @@
+package com.example.BusTopia.DatabaseEntity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// One row per sold seat, the unique key lets the database refuse a second sale whichever instance attempts it
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "Booked_seat",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"bus_id", "journey_date", "seat"}),
+        indexes = @Index(columnList = "ticket_id"))
+public class BookedSeat {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booked_seat_seq")
+    @SequenceGenerator(name = "booked_seat_seq", sequenceName = "booked_seat_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "bus_id", nullable = false)
+    private Integer busId;
+
+    @Column(nullable = false)
+    private LocalDate journeyDate;
+
+    @Column(nullable = false)
+    private String seat;
+
+    @Column(name = "ticket_id", nullable = false)
+    private Integer ticketId;
+}
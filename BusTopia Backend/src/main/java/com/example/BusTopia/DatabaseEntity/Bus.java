@@ -1,5 +1,6 @@
 package com.example.BusTopia.DatabaseEntity;
 
+import com.example.BusTopia.DatabaseEntity.Listeners.RouteIndexEntityListener;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -8,10 +9,12 @@ import java.time.LocalTime;
 
 @Entity
 @Data
+@EntityListeners(RouteIndexEntityListener.class)
 @Table(name = "Bus", uniqueConstraints = @UniqueConstraint(columnNames = "license_no"))
 public class Bus {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bus_seq")
+    @SequenceGenerator(name = "bus_seq", sequenceName = "bus_bus_id_seq", allocationSize = 50)
     private Integer busId;
 
     @Column(nullable = false)
@@ -27,11 +30,11 @@ public class Bus {
 
     private String photo;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "route_id", foreignKey = @ForeignKey(name = "route_id_FK"))
     private Route route;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "layout_id")
     private SeatLayout seatLayout;
 }
\ No newline at end of file
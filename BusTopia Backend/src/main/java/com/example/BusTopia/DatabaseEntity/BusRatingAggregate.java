@@ -0,0 +1,41 @@
+package com.example.BusTopia.DatabaseEntity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Running review totals of one bus, kept in step with Review by RatingAggregateService
+@Entity
+@Data
+@Table(name = "Bus_rating_aggregate")
+public class BusRatingAggregate {
+    // Plain id rather than a relation so reading a rating never loads the bus
+    @Id
+    @Column(name = "bus_id")
+    private Integer busId;
+
+    @Column(nullable = false)
+    private long reviewCount;
+
+    @Column(nullable = false)
+    private long starSum;
+
+    // Histogram, number of reviews given 1 to 5 stars
+    @Column(name = "stars_1", nullable = false)
+    private long stars1;
+
+    @Column(name = "stars_2", nullable = false)
+    private long stars2;
+
+    @Column(name = "stars_3", nullable = false)
+    private long stars3;
+
+    @Column(name = "stars_4", nullable = false)
+    private long stars4;
+
+    @Column(name = "stars_5", nullable = false)
+    private long stars5;
+
+    private LocalDateTime lastReviewTime;
+}
@@ -0,0 +1,29 @@
+package com.example.BusTopia.DatabaseEntity.Listeners;
+
+import com.example.BusTopia.Services.PriceMatrixService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+// Swaps in a fresh price matrix after any Price_mapping write commits
+@Component
+public class PriceMatrixEntityListener {
+
+    private final ObjectProvider<PriceMatrixService> priceMatrixService;
+
+    public PriceMatrixEntityListener(ObjectProvider<PriceMatrixService> priceMatrixService) {
+        this.priceMatrixService = priceMatrixService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChanged(Object entity) {
+        PriceMatrixService service = priceMatrixService.getIfAvailable();
+        if (service != null) {
+            service.reloadAfterCommit();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.BusTopia.DatabaseEntity.Listeners;
+
+import com.example.BusTopia.DatabaseEntity.Bus;
+import com.example.BusTopia.DatabaseEntity.Route;
+import com.example.BusTopia.DatabaseEntity.TimeMapping;
+import com.example.BusTopia.Services.RouteStopIndex;
+import com.example.BusTopia.Services.RouteTimetableIndex;
+import org.hibernate.Hibernate;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Keeps the in-memory route indexes in step with Route, Time_mapping and Bus writes, applied once the write commits
+@Component
+public class RouteIndexEntityListener {
+
+    private final ObjectProvider<RouteTimetableIndex> timetableIndex;
+    private final ObjectProvider<RouteStopIndex> stopIndex;
+
+    public RouteIndexEntityListener(ObjectProvider<RouteTimetableIndex> timetableIndex,
+                                    ObjectProvider<RouteStopIndex> stopIndex) {
+        this.timetableIndex = timetableIndex;
+        this.stopIndex = stopIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        RouteTimetableIndex timetables = timetableIndex.getIfAvailable();
+        RouteStopIndex stops = stopIndex.getIfAvailable();
+        if (entity instanceof TimeMapping mapping) {
+            afterCommit(() -> {
+                if (timetables != null) timetables.onTimeMappingSaved(mapping);
+            });
+        } else if (entity instanceof Route route) {
+            afterCommit(() -> {
+                if (timetables != null) timetables.onRouteSaved(route);
+                if (stops != null) stops.onRouteSaved(route);
+            });
+        } else if (entity instanceof Bus bus) {
+            // Covers reroutes, e.g. from DemandBasedFrequencyScheduler. An unloaded route cannot be
+            // read once the session is gone, the timetable index then picks it up on first use
+            Route route = Hibernate.isInitialized(bus.getRoute()) ? bus.getRoute() : null;
+            afterCommit(() -> {
+                if (timetables != null) timetables.onBusRouteAssigned(route);
+                if (stops != null) stops.onBusSaved(bus);
+            });
+        }
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        RouteTimetableIndex timetables = timetableIndex.getIfAvailable();
+        RouteStopIndex stops = stopIndex.getIfAvailable();
+        if (entity instanceof TimeMapping mapping) {
+            afterCommit(() -> {
+                if (timetables != null) timetables.onTimeMappingRemoved(mapping);
+            });
+        } else if (entity instanceof Route route) {
+            afterCommit(() -> {
+                if (timetables != null) timetables.onRouteRemoved(route);
+                if (stops != null) stops.onRouteRemoved(route);
+            });
+        } else if (entity instanceof Bus bus) {
+            afterCommit(() -> {
+                if (stops != null) stops.onBusRemoved(bus);
+            });
+        }
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
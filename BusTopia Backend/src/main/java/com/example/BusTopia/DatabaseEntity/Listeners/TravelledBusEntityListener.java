@@ -0,0 +1,41 @@
+package com.example.BusTopia.DatabaseEntity.Listeners;
+
+import com.example.BusTopia.DatabaseEntity.Ticket;
+import com.example.BusTopia.Services.TravelledBusIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Drops the ticket owner's travelled buses once a booking or cancellation commits
+@Component
+public class TravelledBusEntityListener {
+
+    private final ObjectProvider<TravelledBusIndex> travelledBusIndex;
+
+    public TravelledBusEntityListener(ObjectProvider<TravelledBusIndex> travelledBusIndex) {
+        this.travelledBusIndex = travelledBusIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChanged(Ticket ticket) {
+        TravelledBusIndex index = travelledBusIndex.getIfAvailable();
+        if (index == null || ticket.getUser() == null) return;
+        long userId = ticket.getUser().getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            index.evict(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                index.evict(userId);
+            }
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.BusTopia.DatabaseEntity;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ticket, Review, Bus and Seat_availability_mapping ids come from pooled sequences that hand out
+ * 50 ids per call. Databases created while these were identity columns still step their sequences
+ * by 1, so the step is raised to 50 and the sequence moved past every id in use. Hibernate refuses
+ * to start when a sequence step differs from its generator, and checks that while the
+ * EntityManagerFactory is built, so this runs on the plain DataSource before that.
+ * Fresh schemas already get the right sequences from Hibernate.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PooledSequenceFix {
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    // table, id column, sequence the generator uses
+    private static final List<String[]> ID_COLUMNS = List.of(
+            new String[]{"ticket", "ticket_id", "ticket_ticket_id_seq"},
+            new String[]{"review", "review_id", "review_review_id_seq"},
+            new String[]{"bus", "bus_id", "bus_bus_id_seq"},
+            new String[]{"seat_availability_mapping", "id", "seat_availability_mapping_id_seq"});
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Makes the EntityManagerFactory wait for the sequences to be fixed
+    @Component
+    public static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+        public EntityManagerFactoryDependency() {
+            super(PooledSequenceFix.class);
+        }
+    }
+
+    @PostConstruct
+    public void raiseSequenceIncrements() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if ("PostgreSQL".equals(database)) {
+            raisePostgresSequences();
+        } else if ("H2".equals(database)) {
+            raiseH2Sequences();
+        }
+    }
+
+    private void raisePostgresSequences() {
+        for (String[] idColumn : ID_COLUMNS) {
+            String table = idColumn[0];
+            String column = idColumn[1];
+            // Before the first start Hibernate has not created the table yet, nor the sequence
+            Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table);
+            if (!Boolean.TRUE.equals(exists)) continue;
+            String sequence = jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence(?, ?)", String.class, table, column);
+            if (sequence == null) continue;
+
+            Long increment = jdbcTemplate.queryForObject(
+                    "SELECT increment_by FROM pg_sequences WHERE schemaname || '.' || sequencename = ?", Long.class, sequence);
+            if (increment != null && increment == ALLOCATION_SIZE) continue;
+
+            Boolean identity = jdbcTemplate.queryForObject(
+                    "SELECT is_identity = 'YES' FROM information_schema.columns WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?",
+                    Boolean.class, table, column);
+            if (Boolean.TRUE.equals(identity)) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + column + " SET INCREMENT BY " + ALLOCATION_SIZE);
+            } else {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + ALLOCATION_SIZE);
+            }
+            // The next call returns the top of a block of 50 that starts above every existing id
+            jdbcTemplate.queryForObject("SELECT setval(CAST(? AS regclass), GREATEST((SELECT COALESCE(MAX(" + column + "), 0) FROM " + table + "), "
+                    + "(SELECT last_value FROM " + sequence + ")) + " + ALLOCATION_SIZE + ", false)", Long.class, sequence);
+            log.info("Sequence {} now allocates {} ids per call", sequence, ALLOCATION_SIZE);
+        }
+    }
+
+    // The H2 test database, where the sequences are looked up by the names the generators use
+    private void raiseH2Sequences() {
+        for (String[] idColumn : ID_COLUMNS) {
+            String table = idColumn[0];
+            String column = idColumn[1];
+            String sequence = idColumn[2];
+            List<Map<String, Object>> found = jdbcTemplate.queryForList(
+                    "SELECT CAST(INCREMENT AS BIGINT) AS step, BASE_VALUE AS next_value FROM INFORMATION_SCHEMA.SEQUENCES "
+                            + "WHERE SEQUENCE_SCHEMA = SCHEMA() AND UPPER(SEQUENCE_NAME) = UPPER(?)", sequence);
+            if (found.isEmpty()) continue;
+            long increment = ((Number) found.get(0).get("step")).longValue();
+            if (increment == ALLOCATION_SIZE) continue;
+
+            long lastUsed = ((Number) found.get(0).get("next_value")).longValue() - 1;
+            Integer tables = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = SCHEMA() AND UPPER(TABLE_NAME) = UPPER(?)",
+                    Integer.class, table);
+            if (tables != null && tables > 0) {
+                Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + column + "), 0) FROM " + table, Long.class);
+                lastUsed = Math.max(lastUsed, maxId != null ? maxId : 0);
+            }
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (lastUsed + ALLOCATION_SIZE)
+                    + " INCREMENT BY " + ALLOCATION_SIZE);
+            log.info("Sequence {} now allocates {} ids per call", sequence, ALLOCATION_SIZE);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.BusTopia.DatabaseEntity;
 
+import com.example.BusTopia.DatabaseEntity.Listeners.PriceMatrixEntityListener;
 import jakarta.persistence.*;
 import lombok.Data;
 
 @Entity
 @Data
+@EntityListeners(PriceMatrixEntityListener.class)
 @Table(name = "Price_mapping")
 public class PriceMapping {
 
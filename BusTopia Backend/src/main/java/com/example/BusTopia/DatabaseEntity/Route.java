@@ -1,5 +1,6 @@
 package com.example.BusTopia.DatabaseEntity;
 
+import com.example.BusTopia.DatabaseEntity.Listeners.RouteIndexEntityListener;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -7,6 +8,7 @@ import java.util.List;
 
 @Entity
 @Data
+@EntityListeners(RouteIndexEntityListener.class)
 @Table(name = "Route")
 public class Route {
     @Id
@@ -0,0 +1,43 @@
+package com.example.BusTopia.DatabaseEntity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Running totals of tickets sold per bus, stop pair and journey date, kept in step with Ticket by SalesRollupService
+@Entity
+@Data
+@Table(name = "Route_sales_rollup", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"bus_id", "source", "destination", "category", "journey_date"})
+}, indexes = @Index(columnList = "journey_date"))
+public class RouteSalesRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain id rather than a relation so reading a rollup never loads the bus
+    @Column(name = "bus_id", nullable = false)
+    private Integer busId;
+
+    @Column(nullable = false)
+    private String source;
+
+    @Column(nullable = false)
+    private String destination;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "journey_date", nullable = false)
+    private LocalDate journeyDate;
+
+    @Column(nullable = false)
+    private long ticketsSold;
+
+    @Column(nullable = false)
+    private long seatsSold;
+
+    @Column(nullable = false)
+    private long revenue;
+}
@@ -15,10 +15,11 @@ import java.util.Map;
 })
 public class SeatAvailabilityMapping {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seat_availability_mapping_seq")
+    @SequenceGenerator(name = "seat_availability_mapping_seq", sequenceName = "seat_availability_mapping_id_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "bus_id", nullable = false)
     private Bus bus;
 
@@ -33,7 +34,13 @@ public class SeatAvailabilityMapping {
 
     // Map<seatLabel, ticketId>
     @Convert(converter = BookedSeatMapConverter.class)
+    @Column(columnDefinition = "TEXT")
     private Map<String, Long> bookedSeats = new HashMap<>();
+
+    // Guards the read-modify-write of bookedSeats against concurrent writers
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
 }
 
 
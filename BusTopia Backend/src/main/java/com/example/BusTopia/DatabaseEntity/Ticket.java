@@ -1,6 +1,7 @@
 package com.example.BusTopia.DatabaseEntity;
 
 import com.example.BusTopia.DatabaseEntity.Converters.StringListConverter;
+import com.example.BusTopia.DatabaseEntity.Listeners.TravelledBusEntityListener;
 import com.example.BusTopia.MySqlRepositories.TimeMappingRepository;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -19,20 +20,23 @@ import java.util.UUID;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor          // ✅ Adds default constructor
-@Table(name = "Ticket")
+@EntityListeners(TravelledBusEntityListener.class)
+@Table(name = "Ticket", indexes = @Index(columnList = "bus_id, date"))
 public class Ticket {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence so inserts can be batched; reuses the sequence of the former identity column
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    @SequenceGenerator(name = "ticket_seq", sequenceName = "ticket_ticket_id_seq", allocationSize = 50)
     private Integer ticketId;
 
     @Column(unique = true)
     private String ticketCode;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private UserEntity user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "bus_id", nullable = false)
     private Bus bus;
 
@@ -0,0 +1,46 @@
+package com.example.BusTopia.Inventory;
+
+import java.time.Instant;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+// Seats reserved for one payment transaction until its deadline
+public class SeatHold implements Delayed {
+
+    private final String holdId;
+    private final SeatInventory.SeatClaim claim;
+    private final long deadlineNanos;
+    private final Instant expiresAt;
+
+    SeatHold(String holdId, SeatInventory.SeatClaim claim, long ttlNanos) {
+        this.holdId = holdId;
+        this.claim = claim;
+        this.deadlineNanos = System.nanoTime() + ttlNanos;
+        this.expiresAt = Instant.now().plusNanos(ttlNanos);
+    }
+
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    SeatInventory.SeatClaim getClaim() {
+        return claim;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        if (other instanceof SeatHold hold) {
+            return Long.compare(deadlineNanos, hold.deadlineNanos);
+        }
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+}
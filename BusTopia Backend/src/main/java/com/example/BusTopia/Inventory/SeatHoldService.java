@@ -0,0 +1,101 @@
+package com.example.BusTopia.Inventory;
+
+import com.example.BusTopia.DatabaseEntity.Bus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds seats while the customer is on the SSLCommerz payment page.
+ * A hold takes the seats in the inventory like a booking does and is freed by the expiry thread
+ * once its TTL passes, unless the payment success callback has taken it over first.
+ */
+@Service
+@Slf4j
+public class SeatHoldService {
+
+    private final SeatInventoryService seatInventoryService;
+    private final long holdTtlNanos;
+
+    private final Map<String, SeatHold> holds = new ConcurrentHashMap<>();
+    private final DelayQueue<SeatHold> expiryQueue = new DelayQueue<>();
+    private Thread expiryThread;
+
+    public SeatHoldService(SeatInventoryService seatInventoryService,
+                           @Value("${seat.hold.ttl-minutes:10}") long holdTtlMinutes) {
+        this.seatInventoryService = seatInventoryService;
+        this.holdTtlNanos = TimeUnit.MINUTES.toNanos(holdTtlMinutes);
+    }
+
+    @PostConstruct
+    public void startExpiry() {
+        expiryThread = Thread.ofPlatform().daemon().name("seat-hold-expiry").start(this::expireHolds);
+    }
+
+    @PreDestroy
+    public void stopExpiry() {
+        if (expiryThread != null) {
+            expiryThread.interrupt();
+        }
+    }
+
+    public SeatHold hold(String holdId, Bus bus, LocalDate journeyDate, List<String> seats) {
+        if (holds.containsKey(holdId)) {
+            throw new IllegalArgumentException("Seats are already held for transaction " + holdId);
+        }
+        SeatInventory inventory = seatInventoryService.getInventory(bus, journeyDate);
+        SeatInventory.SeatClaim claim = inventory.hold(inventory.resolve(seats));
+
+        SeatHold hold = new SeatHold(holdId, claim, holdTtlNanos);
+        if (holds.putIfAbsent(holdId, hold) != null) {
+            claim.expire();
+            throw new IllegalArgumentException("Seats are already held for transaction " + holdId);
+        }
+        expiryQueue.put(hold);
+        return hold;
+    }
+
+    // Hands the held seats over to a booking, empty if the hold is unknown or already expired
+    public Optional<SeatInventory.SeatClaim> take(String holdId) {
+        SeatHold hold = holds.remove(holdId);
+        if (hold == null || !hold.getClaim().takeOver()) {
+            return Optional.empty();
+        }
+        // The queue entry stays until its deadline, expiring a taken-over claim is a no-op
+        return Optional.of(hold.getClaim());
+    }
+
+    public void release(String holdId) {
+        SeatHold hold = holds.remove(holdId);
+        if (hold != null) {
+            hold.getClaim().expire();
+        }
+    }
+
+    public int activeHolds() {
+        return holds.size();
+    }
+
+    private void expireHolds() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                SeatHold hold = expiryQueue.take();
+                if (holds.remove(hold.getHoldId(), hold) && hold.getClaim().expire()) {
+                    log.info("Seat hold {} expired", hold.getHoldId());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.BusTopia.Inventory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Interns the seat labels of a SeatLayout grid into dense positions 0..size-1
+public final class SeatIndex {
+
+    private final String[] labels;
+    private final Map<String, Integer> positions;
+
+    private SeatIndex(String[] labels, Map<String, Integer> positions) {
+        this.labels = labels;
+        this.positions = positions;
+    }
+
+    public static SeatIndex of(List<List<String>> layout) {
+        List<String> seats = new ArrayList<>();
+        Map<String, Integer> positions = new HashMap<>();
+        if (layout != null) {
+            for (List<String> row : layout) {
+                for (String seat : row) {
+                    // Empty cells are aisles, duplicate labels keep their first position
+                    if (seat == null || seat.isEmpty() || positions.containsKey(seat)) continue;
+                    positions.put(seat, seats.size());
+                    seats.add(seat);
+                }
+            }
+        }
+        return new SeatIndex(seats.toArray(new String[0]), positions);
+    }
+
+    public int indexOf(String label) {
+        Integer position = positions.get(label);
+        return position != null ? position : -1;
+    }
+
+    public String labelAt(int position) {
+        return labels[position];
+    }
+
+    public int size() {
+        return labels.length;
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.BusTopia.Inventory;
+
+import com.example.BusTopia.DatabaseEntity.Bus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Booked and held state of one bus on one journey date, one bit per seat position of its SeatIndex
+public class SeatInventory {
+
+    public record Key(int busId, LocalDate journeyDate) {}
+
+    private final Key key;
+    private final Bus bus;
+    private final SeatIndex index;
+    // A set bit means the seat is taken, either by a booking or by a hold
+    private final AtomicLongArray booked;
+    // Subset of the booked bits that are payment holds rather than tickets
+    private final AtomicLongArray held;
+    private final AtomicLongArray ticketIds;
+    private final AtomicInteger bookedCount = new AtomicInteger();
+    // bookedSeats() as last written to Seat_availability_mapping, owned by the flushing thread
+    private Map<String, Long> persisted = Map.of();
+
+    SeatInventory(Bus bus, LocalDate journeyDate, SeatIndex index) {
+        this.key = new Key(bus.getBusId(), journeyDate);
+        this.bus = bus;
+        this.index = index;
+        this.booked = new AtomicLongArray((index.size() + 63) >>> 6);
+        this.held = new AtomicLongArray((index.size() + 63) >>> 6);
+        this.ticketIds = new AtomicLongArray(index.size());
+    }
+
+    // Restores sold seats, only used before the inventory is published
+    void load(Map<String, Long> bookedSeats) {
+        if (bookedSeats == null) return;
+        for (Map.Entry<String, Long> entry : bookedSeats.entrySet()) {
+            int position = index.indexOf(entry.getKey());
+            if (position < 0) continue; // seat no longer exists in the layout
+            long mask = 1L << position;
+            int word = position >>> 6;
+            if ((booked.get(word) & mask) == 0) {
+                booked.set(word, booked.get(word) | mask);
+                bookedCount.incrementAndGet();
+            }
+            ticketIds.set(position, entry.getValue() != null ? entry.getValue() : 0L);
+        }
+        persisted = bookedSeats();
+    }
+
+    Map<String, Long> getPersisted() {
+        return persisted;
+    }
+
+    void setPersisted(Map<String, Long> persisted) {
+        this.persisted = persisted;
+    }
+
+    // Marks a seat sold by another writer as booked here too, false if this inventory already took it
+    boolean adopt(String seat, long ticketId) {
+        int position = index.indexOf(seat);
+        if (position < 0) return true;
+        if (!trySet(position)) return ticketIds.get(position) == ticketId;
+        ticketIds.set(position, ticketId);
+        bookedCount.incrementAndGet();
+        return true;
+    }
+
+    public Key getKey() {
+        return key;
+    }
+
+    public Bus getBus() {
+        return bus;
+    }
+
+    public int getTotalSeats() {
+        return index.size();
+    }
+
+    public int getAvailableSeats() {
+        return index.size() - bookedCount.get();
+    }
+
+    public String labelAt(int position) {
+        return index.labelAt(position);
+    }
+
+    public boolean isBooked(int position) {
+        return (booked.get(position >>> 6) & (1L << position)) != 0;
+    }
+
+    public boolean isHeld(int position) {
+        return (held.get(position >>> 6) & (1L << position)) != 0;
+    }
+
+    public int[] resolve(List<String> seats) {
+        int[] positions = new int[seats.size()];
+        for (int i = 0; i < seats.size(); i++) {
+            String seat = seats.get(i);
+            int position = index.indexOf(seat);
+            if (position < 0) {
+                throw new IllegalArgumentException("Seat " + seat + " does not exist on this bus.");
+            }
+            for (int j = 0; j < i; j++) {
+                if (positions[j] == position) {
+                    throw new IllegalArgumentException("Seat " + seat + " is selected more than once.");
+                }
+            }
+            positions[i] = position;
+        }
+        return positions;
+    }
+
+    /**
+     * Sets the booked bit of every position or of none of them.
+     * Returns the claim on success, or throws naming the first seat that was already taken.
+     */
+    public SeatClaim claim(int[] positions) {
+        return claim(positions, SeatClaim.State.PENDING);
+    }
+
+    // Same as claim, but the seats are reported as held until the claim is taken over or expires
+    public SeatClaim hold(int[] positions) {
+        SeatClaim claim = claim(positions, SeatClaim.State.HELD);
+        for (int position : positions) {
+            setBit(held, position);
+        }
+        return claim;
+    }
+
+    private SeatClaim claim(int[] positions, SeatClaim.State initialState) {
+        for (int i = 0; i < positions.length; i++) {
+            if (!trySet(positions[i])) {
+                for (int j = 0; j < i; j++) {
+                    clear(positions[j]);
+                }
+                String state = isHeld(positions[i]) ? "held for another payment" : "already booked";
+                throw new IllegalArgumentException("Seat " + index.labelAt(positions[i]) + " is " + state + ".");
+            }
+        }
+        bookedCount.addAndGet(positions.length);
+        return new SeatClaim(this, positions, initialState);
+    }
+
+    // Frees the seats that still belong to the given ticket, returns how many were freed
+    public int releaseTicket(List<String> seats, long ticketId) {
+        int freed = 0;
+        for (String seat : seats) {
+            int position = index.indexOf(seat);
+            if (position < 0 || ticketIds.get(position) != ticketId) continue;
+            if (ticketIds.compareAndSet(position, ticketId, 0L) && clear(position)) {
+                freed++;
+            }
+        }
+        bookedCount.addAndGet(-freed);
+        return freed;
+    }
+
+    void release(int[] positions) {
+        int freed = 0;
+        for (int position : positions) {
+            ticketIds.set(position, 0L);
+            clearBit(held, position);
+            if (clear(position)) freed++;
+        }
+        bookedCount.addAndGet(-freed);
+    }
+
+    void unhold(int[] positions) {
+        for (int position : positions) {
+            clearBit(held, position);
+        }
+    }
+
+    void assign(int[] positions, long ticketId) {
+        for (int position : positions) {
+            ticketIds.set(position, ticketId);
+        }
+    }
+
+    // Map<seatLabel, ticketId> in the shape stored by SeatAvailabilityMapping, pending claims are left out
+    public Map<String, Long> bookedSeats() {
+        Map<String, Long> snapshot = new HashMap<>();
+        for (int position = 0; position < index.size(); position++) {
+            long ticketId = ticketIds.get(position);
+            if (ticketId != 0L && isBooked(position)) {
+                snapshot.put(index.labelAt(position), ticketId);
+            }
+        }
+        return snapshot;
+    }
+
+    public List<String> heldSeats() {
+        List<String> seats = new ArrayList<>();
+        for (int position = 0; position < index.size(); position++) {
+            if (isHeld(position)) {
+                seats.add(index.labelAt(position));
+            }
+        }
+        return seats;
+    }
+
+    private boolean trySet(int position) {
+        return setBit(booked, position);
+    }
+
+    private boolean clear(int position) {
+        return clearBit(booked, position);
+    }
+
+    private static boolean setBit(AtomicLongArray bits, int position) {
+        int word = position >>> 6;
+        long mask = 1L << position;
+        while (true) {
+            long current = bits.get(word);
+            if ((current & mask) != 0) return false;
+            if (bits.compareAndSet(word, current, current | mask)) return true;
+        }
+    }
+
+    private static boolean clearBit(AtomicLongArray bits, int position) {
+        int word = position >>> 6;
+        long mask = 1L << position;
+        while (true) {
+            long current = bits.get(word);
+            if ((current & mask) == 0) return false;
+            if (bits.compareAndSet(word, current, current & ~mask)) return true;
+        }
+    }
+
+    // Seats claimed by one booking attempt or payment hold, released at most once
+    public static final class SeatClaim {
+        private enum State { HELD, PENDING, CONFIRMED, RELEASED }
+
+        private final SeatInventory inventory;
+        private final int[] positions;
+        private final AtomicReference<State> state;
+
+        private SeatClaim(SeatInventory inventory, int[] positions, State initialState) {
+            this.inventory = inventory;
+            this.positions = positions;
+            this.state = new AtomicReference<>(initialState);
+        }
+
+        public SeatInventory getInventory() {
+            return inventory;
+        }
+
+        // Turns a hold into a pending booking, fails if the hold already expired
+        public boolean takeOver() {
+            if (state.compareAndSet(State.HELD, State.PENDING)) {
+                inventory.unhold(positions);
+                return true;
+            }
+            return false;
+        }
+
+        // Frees the seats only if they are still an unclaimed hold
+        public boolean expire() {
+            if (state.compareAndSet(State.HELD, State.RELEASED)) {
+                inventory.release(positions);
+                return true;
+            }
+            return false;
+        }
+
+        public boolean covers(int[] requested) {
+            if (requested.length != positions.length) return false;
+            int[] a = requested.clone();
+            int[] b = positions.clone();
+            Arrays.sort(a);
+            Arrays.sort(b);
+            return Arrays.equals(a, b);
+        }
+
+        public void confirm(long ticketId) {
+            if (state.compareAndSet(State.PENDING, State.CONFIRMED)) {
+                inventory.assign(positions, ticketId);
+            }
+        }
+
+        public boolean release() {
+            State current = state.get();
+            while (current != State.RELEASED) {
+                if (state.compareAndSet(current, State.RELEASED)) {
+                    inventory.release(positions);
+                    return true;
+                }
+                current = state.get();
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.BusTopia.Inventory;
+
+import com.example.BusTopia.DatabaseEntity.BookedSeat;
+import com.example.BusTopia.DatabaseEntity.Bus;
+import com.example.BusTopia.DatabaseEntity.SeatAvailabilityMapping;
+import com.example.BusTopia.DatabaseEntity.SeatLayout;
+import com.example.BusTopia.MySqlRepositories.BookedSeatRepository;
+import com.example.BusTopia.MySqlRepositories.SeatAvailabilityMappingRepository;
+import com.example.BusTopia.MySqlRepositories.TicketRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory seat inventory for every (bus, journey date) that has been booked or queried.
+ * Bookings are claimed against the bitsets first and written back to Seat_availability_mapping
+ * by a write-behind flush, so the booking path never parses or rewrites the bookedSeats JSON.
+ * An inventory is loaded from the Ticket rows of its journey, so seats whose flush was lost in a crash stay sold.
+ * The bitsets are the fast path: every sale is also inserted as Booked_seat rows in the booking transaction,
+ * and their unique key turns away a seat another instance sold since this one last flushed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatInventoryService {
+
+    private final SeatAvailabilityMappingRepository seatAvailabilityRepository;
+    private final TicketRepository ticketRepository;
+    private final BookedSeatRepository bookedSeatRepository;
+
+    private final Map<Integer, SeatIndex> seatIndexes = new ConcurrentHashMap<>();
+    private final Map<SeatInventory.Key, SeatInventory> inventories = new ConcurrentHashMap<>();
+    private final Set<SeatInventory.Key> dirty = ConcurrentHashMap.newKeySet();
+
+    private static final int MAX_FLUSH_ATTEMPTS = 5;
+
+    public SeatInventory getInventory(Bus bus, LocalDate journeyDate) {
+        SeatInventory.Key key = new SeatInventory.Key(bus.getBusId(), journeyDate);
+        SeatInventory inventory = inventories.get(key);
+        if (inventory != null) return inventory;
+
+        // Load outside the map so a slow query does not block other buses hashed to the same bin
+        SeatInventory loaded = new SeatInventory(bus, journeyDate, seatIndexFor(bus));
+        Map<String, Long> sold = soldSeats(bus.getBusId(), journeyDate);
+        Map<String, Long> persisted = seatAvailabilityRepository.findByBus_BusIdAndJourneyDate(bus.getBusId(), journeyDate)
+                .map(SeatAvailabilityMapping::getBookedSeats)
+                .orElse(Map.of());
+        loaded.load(sold);
+        // The row is the base of the next flush, which writes back whatever it missed
+        loaded.setPersisted(persisted != null ? persisted : Map.of());
+        inventory = inventories.putIfAbsent(key, loaded);
+        if (inventory != null) return inventory;
+        if (!sold.equals(persisted)) markDirty(loaded);
+        return loaded;
+    }
+
+    // Seat label -> ticket id of every committed ticket of the journey
+    private Map<String, Long> soldSeats(Integer busId, LocalDate journeyDate) {
+        Map<String, Long> sold = new HashMap<>();
+        for (Object[] row : ticketRepository.findSeatsByBusIdAndDate(busId, journeyDate)) {
+            long ticketId = ((Number) row[0]).longValue();
+            @SuppressWarnings("unchecked")
+            List<String> seats = (List<String>) row[1];
+            if (seats == null) continue;
+            for (String seat : seats) {
+                sold.put(seat, ticketId);
+            }
+        }
+        return sold;
+    }
+
+    public Optional<SeatInventory> findLoaded(Integer busId, LocalDate journeyDate) {
+        return Optional.ofNullable(inventories.get(new SeatInventory.Key(busId, journeyDate)));
+    }
+
+    // Seat count of the bus's layout, without loading any journey's inventory
+    public int getTotalSeats(Bus bus) {
+        return bus.getSeatLayout() != null ? seatIndexFor(bus).size() : 0;
+    }
+
+    // Claims the seats for the current transaction, they are handed back if it rolls back
+    public SeatInventory.SeatClaim claim(SeatInventory inventory, int[] positions) {
+        return releaseOnRollback(inventory.claim(positions));
+    }
+
+    public SeatInventory.SeatClaim releaseOnRollback(SeatInventory.SeatClaim claim) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    // A claim confirmed before the rollback may have been flushed, the next flush frees its seats again
+                    if (status != STATUS_COMMITTED && claim.release()) {
+                        markDirty(claim.getInventory());
+                    }
+                }
+            });
+        }
+        return claim;
+    }
+
+    // Inserts the sold seats in the caller's transaction, throws when the database has one of them sold already
+    public void claimInDatabase(SeatInventory inventory, List<String> seats, int ticketId) {
+        SeatInventory.Key key = inventory.getKey();
+        List<BookedSeat> rows = seats.stream()
+                .map(seat -> new BookedSeat(null, key.busId(), key.journeyDate(), seat, ticketId))
+                .toList();
+        try {
+            bookedSeatRepository.saveAllAndFlush(rows);
+        } catch (DataIntegrityViolationException e) {
+            // Sold through another instance, this inventory learns about it on its next flush
+            throw new IllegalArgumentException("One of the seats " + String.join(", ", seats) + " is already booked.");
+        }
+    }
+
+    public void releaseInDatabase(int ticketId) {
+        bookedSeatRepository.deleteByTicketId(ticketId);
+    }
+
+    // Runs the action when the current transaction commits, or right away outside of one
+    public void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public void markDirty(SeatInventory inventory) {
+        dirty.add(inventory.getKey());
+    }
+
+    @Scheduled(fixedDelayString = "${seat.inventory.flush-interval-ms:1000}")
+    public void flush() {
+        for (SeatInventory.Key key : dirty) {
+            // Remove before taking the snapshot so that later changes mark the key again
+            if (!dirty.remove(key)) continue;
+            SeatInventory inventory = inventories.get(key);
+            if (inventory == null) continue;
+            try {
+                persist(inventory);
+            } catch (RuntimeException e) {
+                dirty.add(key);
+                log.warn("Seat inventory flush failed for bus {} on {}: {}", key.busId(), key.journeyDate(), e.getMessage());
+            }
+        }
+    }
+
+    // Flushes and drops the inventories of journeys that are over
+    public void evictBefore(LocalDate cutoffDate) {
+        flush();
+        inventories.keySet().removeIf(key -> key.journeyDate().isBefore(cutoffDate) && !dirty.contains(key));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Writes the seats booked and freed since the last flush onto the current row, not the whole map,
+     * so bookings written by another instance are kept. A concurrent write fails the version check
+     * and the delta is applied again on a fresh read.
+     */
+    private void persist(SeatInventory inventory) {
+        SeatInventory.Key key = inventory.getKey();
+        Map<String, Long> bookedSeats = inventory.bookedSeats();
+        Map<String, Long> previous = inventory.getPersisted();
+
+        for (int attempt = 1; ; attempt++) {
+            SeatAvailabilityMapping mapping = seatAvailabilityRepository
+                    .findByBus_BusIdAndJourneyDate(key.busId(), key.journeyDate())
+                    .orElseGet(() -> {
+                        SeatAvailabilityMapping newMapping = new SeatAvailabilityMapping();
+                        newMapping.setBus(inventory.getBus());
+                        newMapping.setJourneyDate(key.journeyDate());
+                        return newMapping;
+                    });
+
+            Map<String, Long> merged = new HashMap<>(mapping.getBookedSeats() != null ? mapping.getBookedSeats() : Map.of());
+            previous.forEach((seat, ticketId) -> {
+                if (!bookedSeats.containsKey(seat)) merged.remove(seat, ticketId);
+            });
+            bookedSeats.forEach((seat, ticketId) -> {
+                Long existing = merged.putIfAbsent(seat, ticketId);
+                if (existing != null && !existing.equals(ticketId)) {
+                    log.error("Seat {} of bus {} on {} is booked by ticket {} and ticket {}",
+                            seat, key.busId(), key.journeyDate(), existing, ticketId);
+                }
+            });
+            // Seats sold elsewhere stop being sellable here
+            merged.forEach((seat, ticketId) -> {
+                if (!bookedSeats.containsKey(seat) && !inventory.adopt(seat, ticketId)) {
+                    log.error("Seat {} of bus {} on {} was sold by another instance while claimed here",
+                            seat, key.busId(), key.journeyDate());
+                }
+            });
+
+            mapping.setTotalSeats(inventory.getTotalSeats());
+            mapping.setAvailableSeats(Math.max(0, inventory.getTotalSeats() - merged.size()));
+            mapping.setBookedSeats(merged);
+            try {
+                seatAvailabilityRepository.save(mapping);
+                inventory.setPersisted(bookedSeats);
+                return;
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                // Another writer updated or created the row first
+                if (attempt >= MAX_FLUSH_ATTEMPTS) throw e;
+            }
+        }
+    }
+
+    private SeatIndex seatIndexFor(Bus bus) {
+        SeatLayout layout = bus.getSeatLayout();
+        if (layout == null) {
+            throw new IllegalStateException("Seat layout is not set for bus " + bus.getBusId());
+        }
+        if (layout.getLayoutId() == null) {
+            return SeatIndex.of(layout.getLayout());
+        }
+        return seatIndexes.computeIfAbsent(layout.getLayoutId(), id -> SeatIndex.of(layout.getLayout()));
+    }
+}
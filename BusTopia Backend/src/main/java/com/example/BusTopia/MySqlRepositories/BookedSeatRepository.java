@@ -0,0 +1,25 @@
+package com.example.BusTopia.MySqlRepositories;
+
+import com.example.BusTopia.DatabaseEntity.BookedSeat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+@Repository
+public interface BookedSeatRepository extends JpaRepository<BookedSeat, Long> {
+
+    // Frees the seats of a cancelled ticket, in the cancelling transaction
+    @Modifying
+    @Query("DELETE FROM BookedSeat s WHERE s.ticketId = :ticketId")
+    int deleteByTicketId(@Param("ticketId") Integer ticketId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BookedSeat s WHERE s.journeyDate < :cutoffDate")
+    int deleteByJourneyDateBefore(@Param("cutoffDate") LocalDate cutoffDate);
+}
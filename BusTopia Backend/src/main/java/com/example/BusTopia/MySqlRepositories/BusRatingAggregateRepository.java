@@ -0,0 +1,68 @@
+package com.example.BusTopia.MySqlRepositories;
+
+import com.example.BusTopia.DatabaseEntity.BusRatingAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BusRatingAggregateRepository extends JpaRepository<BusRatingAggregate, Integer> {
+
+    // Counts one review into the bus's totals, creating the row on its first review
+    @Modifying
+    @Query(value = """
+        INSERT INTO bus_rating_aggregate (bus_id, review_count, star_sum, stars_1, stars_2, stars_3, stars_4, stars_5, last_review_time)
+        VALUES (:busId, 1, :stars,
+                CASE WHEN :stars = 1 THEN 1 ELSE 0 END, CASE WHEN :stars = 2 THEN 1 ELSE 0 END,
+                CASE WHEN :stars = 3 THEN 1 ELSE 0 END, CASE WHEN :stars = 4 THEN 1 ELSE 0 END,
+                CASE WHEN :stars = 5 THEN 1 ELSE 0 END, :reviewTime)
+        ON CONFLICT (bus_id) DO UPDATE SET
+            review_count = bus_rating_aggregate.review_count + 1,
+            star_sum = bus_rating_aggregate.star_sum + EXCLUDED.star_sum,
+            stars_1 = bus_rating_aggregate.stars_1 + EXCLUDED.stars_1,
+            stars_2 = bus_rating_aggregate.stars_2 + EXCLUDED.stars_2,
+            stars_3 = bus_rating_aggregate.stars_3 + EXCLUDED.stars_3,
+            stars_4 = bus_rating_aggregate.stars_4 + EXCLUDED.stars_4,
+            stars_5 = bus_rating_aggregate.stars_5 + EXCLUDED.stars_5,
+            last_review_time = GREATEST(bus_rating_aggregate.last_review_time, EXCLUDED.last_review_time)
+    """, nativeQuery = true)
+    void addReview(@Param("busId") Integer busId,
+                   @Param("stars") int stars,
+                   @Param("reviewTime") LocalDateTime reviewTime);
+
+    // Holds new reviews until the rebuild commits
+    @Modifying
+    @Query(value = "LOCK TABLE bus_rating_aggregate IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM bus_rating_aggregate", nativeQuery = true)
+    void deleteAllRows();
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO bus_rating_aggregate (bus_id, review_count, star_sum, stars_1, stars_2, stars_3, stars_4, stars_5, last_review_time)
+        SELECT r.bus_id, COUNT(*), SUM(r.stars),
+               COUNT(*) FILTER (WHERE r.stars = 1), COUNT(*) FILTER (WHERE r.stars = 2),
+               COUNT(*) FILTER (WHERE r.stars = 3), COUNT(*) FILTER (WHERE r.stars = 4),
+               COUNT(*) FILTER (WHERE r.stars = 5), MAX(r.review_time)
+        FROM review r
+        GROUP BY r.bus_id
+    """, nativeQuery = true)
+    int insertFromReviews();
+
+    // [reviewCount, starSum, stars1..stars5, lastReviewTime] over every bus of the company, one row
+    @Query("""
+    SELECT SUM(a.reviewCount), SUM(a.starSum), SUM(a.stars1), SUM(a.stars2), SUM(a.stars3), SUM(a.stars4), SUM(a.stars5),
+           MAX(a.lastReviewTime)
+    FROM BusRatingAggregate a
+    JOIN Bus b ON b.busId = a.busId
+    WHERE LOWER(b.companyName) = LOWER(:companyName)
+""")
+    List<Object[]> sumByCompanyName(@Param("companyName") String companyName);
+}
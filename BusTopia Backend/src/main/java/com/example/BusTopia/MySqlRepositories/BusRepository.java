@@ -5,11 +5,14 @@ import com.example.BusTopia.DatabaseEntity.Route;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BusRepository extends JpaRepository<Bus, Integer> {
@@ -17,22 +20,37 @@ public interface BusRepository extends JpaRepository<Bus, Integer> {
     @Query("SELECT DISTINCT b.companyName FROM Bus b")
     List<String> findDistinctCompanyNames();
 
+    @EntityGraph(attributePaths = "route")
     @Query("SELECT b FROM Bus b WHERE b.companyName = :companyName")
     Page<Bus> findSpecificCompanyBus(@Param("companyName") String companyName, Pageable pageable);
 
+    @EntityGraph(attributePaths = "route")
     Bus findByLicenseNo(String licenseNo);
 
+    // Everything the bus detail and seat layout pages show, in one select
+    @EntityGraph(attributePaths = {"route", "seatLayout"})
+    Optional<Bus> findWithRouteAndSeatLayoutByBusId(Integer busId);
+
+    @EntityGraph(attributePaths = "route")
+    List<Bus> findByBusIdIn(Collection<Integer> busIds);
+
     @Query("SELECT COUNT(t) > 0 FROM Ticket t WHERE t.user.id = :userId AND t.bus.busId = :busId")
     boolean existsTicketByUserIdAndBusId(@Param("userId") int userId, @Param("busId") int busId);
 
-    @Query("SELECT t.bus FROM Ticket t WHERE t.user.id = :userId")
-    List<Bus> getTravelledBuses(@Param("userId") int userId);
+    @Query("SELECT DISTINCT t.bus.busId FROM Ticket t WHERE t.user.id = :userId")
+    List<Integer> findTravelledBusIds(@Param("userId") long userId);
 
+    @EntityGraph(attributePaths = "route")
     List<Bus> findByRouteIn(List<Route> routes);
 
     @Query("SELECT b FROM Bus b WHERE b.route.id = :routeId")
     List<Bus> findByRouteId(@Param("routeId") int routeId);
 
+    // Serialized as entities by /home/company, so nothing may be left as a lazy proxy
+    @EntityGraph(attributePaths = {"route", "seatLayout"})
     List<Bus> findByCompanyNameIgnoreCase(String companyName);
 
+    @Query("SELECT b.busId, b.route.routeId FROM Bus b WHERE b.route IS NOT NULL")
+    List<Object[]> findBusIdAndRouteId();
+
 }
@@ -1,22 +1,66 @@
 package com.example.BusTopia.MySqlRepositories;
 
+import com.example.BusTopia.DTOs.Admin.ReviewExportRow;
+import com.example.BusTopia.DTOs.Review.ReviewFeedRow;
 import com.example.BusTopia.DatabaseEntity.Bus;
 import com.example.BusTopia.DatabaseEntity.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Integer> {
-    @Query(value = "SELECT setval('review_review_id_seq', COALESCE((SELECT MAX(review_id) FROM review), 0) + 1, false)", nativeQuery = true)
+    // Review ids are handed out 50 at a time, so the next block has to start above both the largest id and any block already taken
+    @Query(value = """
+        SELECT setval('review_review_id_seq',
+            GREATEST(COALESCE((SELECT MAX(review_id) FROM review), 0), (SELECT last_value FROM review_review_id_seq)) + 50, false)
+    """, nativeQuery = true)
     Long resetSequence();
 
-    @Query("SELECT r FROM Review r WHERE r.bus.busId = :busId")
-    List<Review> findByBusId(int busId);
+    // Every review of a bus, newest first, as the same rows the feed pages through
+    @Query("""
+    SELECT new com.example.BusTopia.DTOs.Review.ReviewFeedRow(
+        r.reviewId, r.message, u.id, u.imageUrl, r.reviewTime, r.stars, r.images, u.userName)
+    FROM Review r JOIN r.user u
+    WHERE r.bus.busId = :busId
+    ORDER BY r.reviewTime DESC, r.reviewId DESC
+""")
+    List<ReviewFeedRow> findFeedByBusId(@Param("busId") int busId);
 
-    List<Review> findByBusBusIdIn(List<Integer> busIds);
+    // Keyset page of a bus's reviews, newest first, strictly before the (reviewTime, reviewId) cursor
+    @Query("""
+    SELECT new com.example.BusTopia.DTOs.Review.ReviewFeedRow(
+        r.reviewId, r.message, u.id, u.imageUrl, r.reviewTime, r.stars, r.images, u.userName)
+    FROM Review r JOIN r.user u
+    WHERE r.bus.busId = :busId
+      AND (r.reviewTime < :beforeTime OR (r.reviewTime = :beforeTime AND r.reviewId < :beforeId))
+    ORDER BY r.reviewTime DESC, r.reviewId DESC
+""")
+    List<ReviewFeedRow> findFeedPageBefore(@Param("busId") int busId,
+                                           @Param("beforeTime") LocalDateTime beforeTime,
+                                           @Param("beforeId") int beforeId,
+                                           Pageable pageable);
+
+    // Keyset page for the analytics export, reviews in [from, to) optionally limited to one company
+    @Query("""
+    SELECT new com.example.BusTopia.DTOs.Admin.ReviewExportRow(
+        r.reviewId, r.message, r.stars, r.reviewTime, b.companyName, b.licenseNo)
+    FROM Review r JOIN r.bus b
+    WHERE r.reviewId > :afterId
+      AND r.reviewTime >= :from AND r.reviewTime < :to
+      AND (:companyName IS NULL OR b.companyName = :companyName)
+    ORDER BY r.reviewId
+""")
+    List<ReviewExportRow> findExportPageAfter(@Param("afterId") int afterId,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to,
+                                              @Param("companyName") String companyName,
+                                              Pageable pageable);
 
 }
@@ -0,0 +1,91 @@
+package com.example.BusTopia.MySqlRepositories;
+
+import com.example.BusTopia.DatabaseEntity.RouteSalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RouteSalesRollupRepository extends JpaRepository<RouteSalesRollup, Long> {
+
+    // Adds to the counters of one rollup row, creating it on the first sale; negative deltas undo a sale
+    @Modifying
+    @Query(value = """
+        INSERT INTO route_sales_rollup (bus_id, source, destination, category, journey_date, tickets_sold, seats_sold, revenue)
+        VALUES (:busId, :source, :destination, :category, :journeyDate, :tickets, :seats, :revenue)
+        ON CONFLICT (bus_id, source, destination, category, journey_date) DO UPDATE SET
+            tickets_sold = route_sales_rollup.tickets_sold + EXCLUDED.tickets_sold,
+            seats_sold = route_sales_rollup.seats_sold + EXCLUDED.seats_sold,
+            revenue = route_sales_rollup.revenue + EXCLUDED.revenue
+    """, nativeQuery = true)
+    void addSales(@Param("busId") Integer busId,
+                  @Param("source") String source,
+                  @Param("destination") String destination,
+                  @Param("category") String category,
+                  @Param("journeyDate") LocalDate journeyDate,
+                  @Param("tickets") long tickets,
+                  @Param("seats") long seats,
+                  @Param("revenue") long revenue);
+
+    // Waits for bookings that already touched the rollups and holds new ones until the backfill commits
+    @Modifying
+    @Query(value = "LOCK TABLE route_sales_rollup IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForBackfill();
+
+    @Modifying
+    @Query(value = "DELETE FROM route_sales_rollup", nativeQuery = true)
+    void deleteAllRows();
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO route_sales_rollup (bus_id, source, destination, category, journey_date, tickets_sold, seats_sold, revenue)
+        SELECT t.bus_id, t.source, t.destination, b.category, t.date,
+               COUNT(*), COALESCE(SUM(json_array_length(t.seats::json)), 0), COALESCE(SUM(t.price), 0)
+        FROM ticket t
+        JOIN bus b ON b.bus_id = t.bus_id
+        GROUP BY t.bus_id, t.source, t.destination, b.category, t.date
+    """, nativeQuery = true)
+    int insertFromTickets();
+
+    // [source, destination, price, ticketsSold, totalRevenue] for every price mapping, like getTicketSalesByRouteWithPrice
+    @Query(value = """
+        SELECT
+            pm.stop1 AS source,
+            pm.stop2 AS destination,
+            pm.price AS price,
+            COALESCE(s.tickets_sold, 0) AS ticketsSold,
+            COALESCE(s.revenue, 0) AS totalRevenue
+        FROM (SELECT DISTINCT stop1, stop2, price FROM price_mapping) pm
+        LEFT JOIN (
+            SELECT source, destination, SUM(tickets_sold) AS tickets_sold, SUM(revenue) AS revenue
+            FROM route_sales_rollup
+            GROUP BY source, destination
+        ) s ON s.source = pm.stop1 AND s.destination = pm.stop2
+    """, nativeQuery = true)
+    List<Object[]> getSalesByRouteWithPrice();
+
+    // [source, destination, category, seatsSold] for journeys on or after the cutoff
+    @Query("""
+    SELECT r.source, r.destination, r.category, SUM(r.seatsSold)
+    FROM RouteSalesRollup r
+    WHERE r.journeyDate >= :cutoff
+    GROUP BY r.source, r.destination, r.category
+""")
+    List<Object[]> sumSeatsByStopsAndCategorySince(@Param("cutoff") LocalDate cutoff);
+
+    // [busId, routeId or null, companyName, seatsSold] for every bus, seats counted on journeys after the cutoff
+    @Query("""
+    SELECT b.busId, r.routeId, b.companyName, COALESCE(SUM(s.seatsSold), 0)
+    FROM Bus b
+    LEFT JOIN b.route r
+    LEFT JOIN RouteSalesRollup s ON s.busId = b.busId AND s.journeyDate > :cutoff
+    GROUP BY b.busId, r.routeId, b.companyName
+    ORDER BY b.busId
+""")
+    List<Object[]> sumSeatsPerBusAfter(@Param("cutoff") LocalDate cutoff);
+}
@@ -3,9 +3,13 @@ package com.example.BusTopia.MySqlRepositories;
 import com.example.BusTopia.DatabaseEntity.SeatAvailabilityMapping;
 import com.example.BusTopia.DatabaseEntity.Bus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +20,10 @@ public interface SeatAvailabilityMappingRepository extends JpaRepository<SeatAva
     Optional<SeatAvailabilityMapping> findByBusAndJourneyDate(Bus bus, LocalDate journeyDate);
 
     Optional<SeatAvailabilityMapping> findByBus_BusIdAndJourneyDate(Integer busId, LocalDate journeyDate);
+
+    // [busId, availableSeats] for every bus that has a mapping on the date
+    @Query("SELECT s.bus.busId, s.availableSeats FROM SeatAvailabilityMapping s " +
+            "WHERE s.bus.busId IN :busIds AND s.journeyDate = :journeyDate")
+    List<Object[]> findAvailableSeatsByBusIdsAndJourneyDate(@Param("busIds") Collection<Integer> busIds,
+                                                            @Param("journeyDate") LocalDate journeyDate);
 }
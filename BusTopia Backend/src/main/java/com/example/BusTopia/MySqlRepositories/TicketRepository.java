@@ -1,51 +1,48 @@
 package com.example.BusTopia.MySqlRepositories;
 
+import com.example.BusTopia.DTOs.Admin.TicketExportRow;
+import com.example.BusTopia.DTOs.BuyTicket.TicketResponse;
 import com.example.BusTopia.DatabaseEntity.Ticket;
-import com.example.BusTopia.DatabaseEntity.UserEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Integer> {
 
-    @Query("SELECT t FROM Ticket t WHERE t.ticketCode = :ticketCode AND t.bus.companyName = :companyName")
+    @Query("SELECT t FROM Ticket t JOIN FETCH t.bus b JOIN FETCH t.user WHERE t.ticketCode = :ticketCode AND b.companyName = :companyName")
     Ticket findTicketByCodeAndCompany(@Param("ticketCode") String ticketCode,
                                       @Param("companyName") String companyName);
 
-    List<Ticket> findByUserOrderByTicketIdDesc(UserEntity user);
-
-    @Query(value = """
-        SELECT 
-            pm.stop1 AS source,
-            pm.stop2 AS destination,
-            pm.price AS price,
-            COALESCE(COUNT(t.ticket_id), 0) AS ticketsSold,
-            COALESCE(SUM(t.price), 0) AS totalRevenue
-        FROM price_mapping pm
-        LEFT JOIN ticket t ON t.source = pm.stop1 AND t.destination = pm.stop2
-        GROUP BY pm.stop1, pm.stop2, pm.price
-    """, nativeQuery = true)
-    List<Object[]> getTicketSalesByRouteWithPrice();
+    // [ticketId, seats] of every ticket sold on the bus for the journey date
+    @Query("SELECT t.ticketId, t.seats FROM Ticket t WHERE t.bus.busId = :busId AND t.date = :date")
+    List<Object[]> findSeatsByBusIdAndDate(@Param("busId") Integer busId, @Param("date") LocalDate date);
 
+    // Ticket history of a user, newest first, read straight into the response without loading any entity
     @Query("""
-    SELECT t FROM Ticket t
-    WHERE t.source = :source
-      AND t.destination = :destination
-      AND t.bus.category = :category
-      AND t.date >= :cutoff
+    SELECT new com.example.BusTopia.DTOs.BuyTicket.TicketResponse(
+        t.ticketId, t.ticketCode, b.busId, b.companyName, b.licenseNo, b.category, t.date, t.scheduledTime,
+        t.source, t.destination, t.seats, t.price, t.bookingTime, t.status)
+    FROM Ticket t JOIN t.bus b
+    WHERE t.user.id = :userId
+    ORDER BY t.ticketId DESC
 """)
-    List<Ticket> findBySourceAndDestinationAndCategorySinceDate(
-            @Param("source") String source,
-            @Param("destination") String destination,
-            @Param("category") String category,
-            @Param("cutoff") java.time.LocalDate cutoff);
+    List<TicketResponse> findHistoryByUserId(@Param("userId") long userId);
 
-    List<Ticket> findAllByDateAfter(LocalDate cutoffDate);
+    // Keyset page for the analytics export: the next tickets after afterId, using the primary key index
+    @Query("""
+    SELECT new com.example.BusTopia.DTOs.Admin.TicketExportRow(
+        t.ticketId, b.companyName, t.price, t.source, t.destination, t.date, t.status)
+    FROM Ticket t JOIN t.bus b
+    WHERE t.ticketId > :afterId
+    ORDER BY t.ticketId
+""")
+    List<TicketExportRow> findExportPageAfter(@Param("afterId") int afterId, Pageable pageable);
 
 }
@@ -7,6 +7,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -19,4 +21,7 @@ public interface TimeMappingRepository extends JpaRepository<TimeMapping, Intege
             @Param("stop1") String stop1,
             @Param("stop2") String stop2
     );
+
+    @Query("SELECT t FROM TimeMapping t WHERE t.stop1 IN :stops AND t.stop2 IN :stops")
+    List<TimeMapping> findAllAmongStops(@Param("stops") Collection<String> stops);
 }
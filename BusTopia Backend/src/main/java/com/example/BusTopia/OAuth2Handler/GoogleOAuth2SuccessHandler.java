@@ -3,6 +3,7 @@ package com.example.BusTopia.OAuth2Handler;
 import com.example.BusTopia.DatabaseEntity.UserEntity;
 import com.example.BusTopia.MySqlRepositories.UserRepository;
 import com.example.BusTopia.SecurityConfiguration.JwtUtility;
+import com.example.BusTopia.Services.UserPrincipalCache;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,6 +27,9 @@ public class GoogleOAuth2SuccessHandler implements AuthenticationSuccessHandler
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
     @Autowired
     private JwtUtility jwtUtility;
 
@@ -44,6 +48,7 @@ public class GoogleOAuth2SuccessHandler implements AuthenticationSuccessHandler
             user.setUserName(oauthUser.getAttribute("name"));
             user.setRole("ROLE_USER");
             userRepository.save(user);
+            userPrincipalCache.evict(email);
         }
 
         // Generate JWT
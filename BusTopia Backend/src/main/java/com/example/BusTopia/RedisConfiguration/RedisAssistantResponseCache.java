@@ -0,0 +1,41 @@
+package com.example.BusTopia.RedisConfiguration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Shared tier of AssistantResponseCache, so an answer learned on one instance is a hit on the others
+@Component
+@ConditionalOnProperty(name = "assistant.cache.redis", havingValue = "true")
+@Slf4j
+public class RedisAssistantResponseCache {
+
+    private static final String PREFIX = "bustopia:assistant:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisAssistantResponseCache(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public String get(String key) {
+        try {
+            return redisTemplate.opsForValue().get(PREFIX + key);
+        } catch (RuntimeException e) {
+            // Treated as a miss, the answer is asked from the LLM
+            log.warn("Assistant cache read failed", e);
+            return null;
+        }
+    }
+
+    public void put(String key, String answer, long ttlSeconds) {
+        try {
+            redisTemplate.opsForValue().set(PREFIX + key, answer, Duration.ofSeconds(ttlSeconds));
+        } catch (RuntimeException e) {
+            log.warn("Assistant cache write failed", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.BusTopia.RedisConfiguration;
+
+import com.example.BusTopia.Services.UserPrincipalCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+// Spreads UserPrincipalCache evictions to every instance over a Redis pub/sub channel
+@Component
+@ConditionalOnProperty(name = "auth.user-cache.redis-invalidation", havingValue = "true")
+@Slf4j
+public class RedisUserCacheInvalidation {
+
+    private static final ChannelTopic CHANNEL = new ChannelTopic("bustopia:user-cache:evict");
+
+    private final StringRedisTemplate redisTemplate;
+    private final UserPrincipalCache userPrincipalCache;
+    private final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+
+    public RedisUserCacheInvalidation(StringRedisTemplate redisTemplate, RedisConnectionFactory connectionFactory,
+                                      UserPrincipalCache userPrincipalCache) {
+        this.redisTemplate = redisTemplate;
+        this.userPrincipalCache = userPrincipalCache;
+        this.container.setConnectionFactory(connectionFactory);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        container.addMessageListener((message, pattern) ->
+                userPrincipalCache.evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)), CHANNEL);
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @PreDestroy
+    public void unsubscribe() throws Exception {
+        container.destroy();
+    }
+
+    public void publish(String email) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL.getTopic(), email);
+        } catch (RuntimeException e) {
+            // Other instances still drop the entry when its TTL runs out
+            log.warn("User cache eviction broadcast failed", e);
+        }
+    }
+}
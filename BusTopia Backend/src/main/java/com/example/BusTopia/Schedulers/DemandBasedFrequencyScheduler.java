@@ -3,28 +3,43 @@ package com.example.BusTopia.Schedulers;
 import com.example.BusTopia.DTOs.RerouteInfo;
 import com.example.BusTopia.DatabaseEntity.*;
 import com.example.BusTopia.MySqlRepositories.*;
+import com.example.BusTopia.Services.RouteStopIndex;
+import com.example.BusTopia.Services.SalesRollupService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DemandBasedFrequencyScheduler {
 
-    private final TicketRepository ticketRepo;
-    private final BusRepository busRepo;
-    private final RouteRepository routeRepo;
+    private final SalesRollupService salesRollupService;
     private final DemandAdjusterConfigRepository configRepo;
+    private final RouteStopIndex routeStopIndex;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final int BATCH_SIZE = 500;
 
     // Run at 3 AM on the 1st of every month
     @Scheduled(cron = "0 0 3 1 * *")
     @Transactional
     public List<RerouteInfo> adjustBusFrequencies() {
+        return adjustBusFrequencies(false);
+    }
+
+    /**
+     * Moves the least booked buses onto the busiest routes. With dryRun the plan is returned
+     * without touching any Bus row.
+     */
+    @Transactional
+    public List<RerouteInfo> adjustBusFrequencies(boolean dryRun) {
         List<RerouteInfo> reroutedBuses = new ArrayList<>();
 
         DemandAdjusterConfig config = configRepo.findById(1L).orElseThrow();
@@ -33,74 +48,91 @@ public class DemandBasedFrequencyScheduler {
         int lowThreshold = config.getUnderperformThreshold();
         int highThreshold = config.getHighDemandThreshold();
 
-        List<Ticket> recentTickets = ticketRepo.findAllByDateAfter(LocalDate.now().minusDays(30));
+        // Step 1: Seats sold per bus in one pass over (busId, routeId, companyName, seats), buses ordered by id
+        List<Object[]> rows = salesRollupService.busDemandAfter(LocalDate.now().minusDays(30));
+        int busCount = rows.size();
+        int[] busIds = new int[busCount];
+        int[] busRoutes = new int[busCount];
+        long[] busSeats = new long[busCount];
+        String[] companies = new String[busCount];
+        int maxRouteId = 0;
+        for (int i = 0; i < busCount; i++) {
+            Object[] row = rows.get(i);
+            busIds[i] = (Integer) row[0];
+            busRoutes[i] = row[1] != null ? (Integer) row[1] : -1;
+            companies[i] = (String) row[2];
+            busSeats[i] = ((Number) row[3]).longValue();
+            maxRouteId = Math.max(maxRouteId, busRoutes[i]);
+        }
 
-        // Step 1: Count seats sold per bus
-        Map<Integer, Integer> busSeatCount = new HashMap<>();
-        for (Ticket ticket : recentTickets) {
-            if (ticket.getBus() != null) {
-                int busId = ticket.getBus().getBusId();
-                int seats = ticket.getSeats() != null ? ticket.getSeats().size() : 0;
-                busSeatCount.put(busId, busSeatCount.getOrDefault(busId, 0) + seats);
-            }
+        // Step 2: Find all buses with low performance, least booked first
+        List<Integer> lowPerformingBuses = new ArrayList<>();
+        for (int i = 0; i < busCount; i++) {
+            if (busSeats[i] <= lowThreshold) lowPerformingBuses.add(i);
         }
+        lowPerformingBuses.sort(Comparator.comparingLong(i -> busSeats[i]));
 
-        // Step 2: Find all buses with low performance
-        List<Bus> allBuses = busRepo.findAll();
-        List<Bus> lowPerformingBuses = allBuses.stream()
-                .filter(b -> busSeatCount.getOrDefault(b.getBusId(), 0) <= lowThreshold)
-                .sorted(Comparator.comparingInt(b -> busSeatCount.getOrDefault(b.getBusId(), 0)))
-                .toList();
+        // Step 3: Count demand per route, route ids are small so they index the array directly
+        long[] routeDemand = new long[maxRouteId + 1];
+        for (int i = 0; i < busCount; i++) {
+            if (busRoutes[i] >= 0) routeDemand[busRoutes[i]] += busSeats[i];
+        }
 
-        // Step 3: Count demand per route
-        Map<Integer, Integer> routeDemandMap = new HashMap<>();
-        for (Ticket ticket : recentTickets) {
-            if (ticket.getBus() != null && ticket.getBus().getRoute() != null) {
-                int routeId = ticket.getBus().getRoute().getRouteId();
-                int seats = ticket.getSeats() != null ? ticket.getSeats().size() : 0;
-                routeDemandMap.put(routeId, routeDemandMap.getOrDefault(routeId, 0) + seats);
+        // Step 4: Get high-demand route IDs, busiest first
+        List<Integer> highDemandRouteIds = new ArrayList<>();
+        boolean[] highDemand = new boolean[maxRouteId + 1];
+        for (int routeId = 0; routeId <= maxRouteId; routeId++) {
+            if (routeDemand[routeId] > 0 && routeDemand[routeId] >= highThreshold) {
+                highDemandRouteIds.add(routeId);
+                highDemand[routeId] = true;
             }
         }
-
-        // Step 4: Get high-demand route IDs
-        List<Integer> highDemandRouteIds = routeDemandMap.entrySet().stream()
-                .filter(e -> e.getValue() >= highThreshold)
-                .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
-                .map(Map.Entry::getKey)
-                .toList();
+        highDemandRouteIds.sort((a, b) -> Long.compare(routeDemand[b], routeDemand[a]));
 
         if (highDemandRouteIds.isEmpty()) {
             return reroutedBuses; // nothing to do
         }
 
-        for(int i : highDemandRouteIds) System.out.println(i);
         // Step 5: Pick X eligible low-performing buses not already in a high-demand route
-        List<Bus> eligibleBuses = lowPerformingBuses.stream()
-                .filter(bus -> bus.getRoute() == null || !highDemandRouteIds.contains(bus.getRoute().getRouteId()))
+        List<Integer> eligibleBuses = lowPerformingBuses.stream()
+                .filter(i -> busRoutes[i] < 0 || !highDemand[busRoutes[i]])
                 .limit(X)
                 .toList();
 
         // Step 6: Evenly distribute eligible buses among high-demand routes
         int routeCount = highDemandRouteIds.size();
         for (int i = 0; i < eligibleBuses.size(); i++) {
-            Bus bus = eligibleBuses.get(i);
+            int bus = eligibleBuses.get(i);
             int targetRouteId = highDemandRouteIds.get(i % routeCount);
-            Route newRoute = routeRepo.findById(targetRouteId).orElse(null);
-
-            if (newRoute != null) {
-                int oldRouteId = bus.getRoute() != null ? bus.getRoute().getRouteId() : -1;
-                bus.setRoute(newRoute);
-                busRepo.save(bus);
-
-                reroutedBuses.add(new RerouteInfo(
-                        bus.getBusId(),
-                        bus.getCompanyName(),
-                        oldRouteId,
-                        newRoute.getRouteId()
-                ));
-            }
+            reroutedBuses.add(new RerouteInfo(busIds[bus], companies[bus], busRoutes[bus], targetRouteId));
         }
 
+        if (!dryRun) {
+            applyReroutes(reroutedBuses);
+        }
         return reroutedBuses;
     }
+
+    // One batched UPDATE instead of loading and saving each Bus; the route index is told once the batch commits
+    private void applyReroutes(List<RerouteInfo> reroutes) {
+        if (reroutes.isEmpty()) return;
+        jdbcTemplate.batchUpdate("UPDATE bus SET route_id = ? WHERE bus_id = ?", reroutes, BATCH_SIZE,
+                (ps, reroute) -> {
+                    ps.setInt(1, reroute.getNewRouteId());
+                    ps.setInt(2, reroute.getBusId());
+                });
+
+        Map<Integer, Integer> newRoutes = new HashMap<>();
+        for (RerouteInfo reroute : reroutes) newRoutes.put(reroute.getBusId(), reroute.getNewRouteId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            routeStopIndex.onBusesRerouted(newRoutes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                routeStopIndex.onBusesRerouted(newRoutes);
+            }
+        });
+    }
 }
@@ -1,71 +1,100 @@
 package com.example.BusTopia.Schedulers;
 
+import com.example.BusTopia.DTOs.Admin.PriceUpdateReport;
 import com.example.BusTopia.DatabaseEntity.PriceMapping;
-import com.example.BusTopia.DatabaseEntity.Ticket;
 import com.example.BusTopia.DatabaseEntity.PricingStrategyConfig;
 import com.example.BusTopia.MySqlRepositories.PriceMappingRepository;
-import com.example.BusTopia.MySqlRepositories.TicketRepository;
 import com.example.BusTopia.MySqlRepositories.PricingStrategyConfigRepository;
+import com.example.BusTopia.Services.PriceMatrixService;
+import com.example.BusTopia.Services.SalesRollupService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class PriceUpdaterScheduler {
 
-    private final TicketRepository ticketRepo;
+    private final SalesRollupService salesRollupService;
     private final PriceMappingRepository priceRepo;
     private final PricingStrategyConfigRepository configRepo;
+    private final PriceMatrixService priceMatrixService;
+    private final JdbcTemplate jdbcTemplate;
 
     private static final int LOOKBACK_DAYS = 30;
+    private static final int BATCH_SIZE = 500;
+
+    private volatile PriceUpdateReport lastReport;
+
+    private record PriceChange(int mappingId, double price) {}
 
     // Runs at 2AM on the 1st day of every month
     @Scheduled(cron = "0 0 2 1 * *")
     @Transactional
-    public void updatePrices() {
+    public PriceUpdateReport updatePrices() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+
         PricingStrategyConfig config = configRepo.findById(1L)
                 .orElseThrow(() -> new RuntimeException("Pricing config not found"));
 
+        // One grouped read of the sales rollups covers every (source, destination, category)
         List<PriceMapping> allMappings = priceRepo.findAll();
+        Map<String, Long> seatsSoldByRoute = salesRollupService.seatsSoldByStopsAndCategorySince(
+                LocalDate.now().minusDays(LOOKBACK_DAYS));
 
+        List<PriceChange> changedPrices = new ArrayList<>();
         for (PriceMapping mapping : allMappings) {
             String source = mapping.getStop1();
             String destination = mapping.getStop2();
             String category = mapping.getCategory();
             double currentPrice = mapping.getPrice();
 
-            List<Ticket> matchingTickets = ticketRepo.findBySourceAndDestinationAndCategorySinceDate(
-                    source, destination, category, LocalDate.now().minusDays(LOOKBACK_DAYS)
-            );
-
-            int seatsSold = matchingTickets.stream()
-                    .mapToInt(t -> t.getSeats() != null ? t.getSeats().size() : 0)
-                    .sum();
+            long seatsSold = seatsSoldByRoute.getOrDefault(
+                    SalesRollupService.stopsAndCategoryKey(source, destination, category), 0L);
 
             double updatedPrice = calculateNewPrice(currentPrice, seatsSold, config);
-
             if (Math.abs(updatedPrice - currentPrice) < 1) {
-                System.out.printf("ℹ️ No significant change for %s → %s [%s]. Skipping.%n",
-                        source, destination, category);
                 continue;
             }
 
-            mapping.setPrice(updatedPrice);
-
+            changedPrices.add(new PriceChange(mapping.getMappingId(), updatedPrice));
             System.out.printf("✅ Updated price for %s → %s [%s]: ৳%.0f → ৳%.0f (seats sold: %d)%n",
                     source, destination, category, currentPrice, updatedPrice, seatsSold);
         }
 
-        priceRepo.saveAll(allMappings);
-        System.out.println("✅ All price mappings updated successfully.");
+        // Only changed rows are written, as JDBC batches; this skips the entity listener so reload the price matrix here
+        if (!changedPrices.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE price_mapping SET price = ? WHERE mapping_id = ?", changedPrices, BATCH_SIZE,
+                    (ps, change) -> {
+                        ps.setDouble(1, change.price());
+                        ps.setInt(2, change.mappingId());
+                    });
+            priceMatrixService.reloadAfterCommit();
+        }
+
+        PriceUpdateReport report = new PriceUpdateReport(startedAt, (System.nanoTime() - startNanos) / 1_000_000,
+                allMappings.size(), changedPrices.size());
+        lastReport = report;
+        System.out.printf("✅ Price update done in %d ms: %d of %d price mappings changed.%n",
+                report.durationMs(), report.rowsChanged(), report.mappingsChecked());
+        return report;
+    }
+
+    public Optional<PriceUpdateReport> getLastReport() {
+        return Optional.ofNullable(lastReport);
     }
 
-    private double calculateNewPrice(double currentPrice, int seatsSold, PricingStrategyConfig config) {
+    private double calculateNewPrice(double currentPrice, long seatsSold, PricingStrategyConfig config) {
         double updatedPrice = currentPrice;
 
         if (seatsSold >= 100) {
@@ -1,10 +1,13 @@
 package com.example.BusTopia.Schedulers;
 
+import com.example.BusTopia.DTOs.Admin.PriceUpdateReport;
 import com.example.BusTopia.DTOs.RerouteInfo;
 import com.example.BusTopia.DatabaseEntity.PricingStrategyConfig;
 import com.example.BusTopia.DatabaseEntity.DemandAdjusterConfig;
 import com.example.BusTopia.MySqlRepositories.PricingStrategyConfigRepository;
 import com.example.BusTopia.MySqlRepositories.DemandAdjusterConfigRepository;
+import com.example.BusTopia.Services.RatingAggregateService;
+import com.example.BusTopia.Services.SalesRollupService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,6 +24,8 @@ public class SchedulerController {
     private final PricingStrategyConfigRepository pricingConfigRepository;
     private final DemandAdjusterConfigRepository demandAdjusterConfigRepository;
     private final DemandBasedFrequencyScheduler frequencyScheduler;
+    private final SalesRollupService salesRollupService;
+    private final RatingAggregateService ratingAggregateService;
 
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/price-config")
@@ -86,14 +91,38 @@ public class SchedulerController {
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping("/trigger-price-update")
     public ResponseEntity<String> triggerPriceUpdateManually() {
-        scheduler.updatePrices();  // call directly
-        return ResponseEntity.ok("✅ Price update triggered manually.");
+        PriceUpdateReport report = scheduler.updatePrices();  // call directly
+        return ResponseEntity.ok("✅ Price update triggered manually: " + report.rowsChanged() + " of "
+                + report.mappingsChecked() + " prices changed in " + report.durationMs() + " ms.");
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/price-update/last-report")
+    public ResponseEntity<PriceUpdateReport> getLastPriceUpdateReport() {
+        return scheduler.getLastReport()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/sales-rollup/backfill")
+    public ResponseEntity<String> backfillSalesRollups() {
+        int rows = salesRollupService.backfill();
+        return ResponseEntity.ok("✅ Sales rollups rebuilt from tickets (" + rows + " rows).");
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/rating-aggregate/rebuild")
+    public ResponseEntity<String> rebuildRatingAggregates() {
+        int rows = ratingAggregateService.rebuild();
+        return ResponseEntity.ok("✅ Rating aggregates rebuilt from reviews (" + rows + " buses).");
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/reroute")
-    public ResponseEntity<?> triggerRerouteManually() {
-        List<RerouteInfo> reroutedBuses = frequencyScheduler.adjustBusFrequencies();
+    public ResponseEntity<?> triggerRerouteManually(@RequestParam(value = "dryRun", defaultValue = "false") boolean dryRun) {
+        // dryRun=true only previews the plan, no bus is moved
+        List<RerouteInfo> reroutedBuses = frequencyScheduler.adjustBusFrequencies(dryRun);
 
         return ResponseEntity.ok(reroutedBuses);
     }
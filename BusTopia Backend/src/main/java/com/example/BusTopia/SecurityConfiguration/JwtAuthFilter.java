@@ -21,17 +21,16 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     @Autowired
-    public JwtUtility jwtUtility;
+    public CustomUserDetailsService userDetailsService;
 
     @Autowired
-    public CustomUserDetailsService userDetailsService;
+    public JwtVerificationCache jwtVerificationCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
         String token = null;
-        String userName = null;
 
         if (request.getCookies() != null) {
             for (var cookie : request.getCookies()) {
@@ -49,24 +48,19 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             }
         }
 
-        if (token != null) {
-            try {
-                userName = jwtUtility.extractUserName(token);
-            } catch (Exception e) {
-                System.out.println("JWT parse error: " + e.getMessage());
-            }
-        }
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // One cached verification instead of parsing the token for the name and again to validate it
+            jwtVerificationCache.verify(token).ifPresent(verified -> {
+                UserDetails userDetails = userDetailsService.loadUserByUsername(verified.subject());
 
-        if (userName != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(userName);
+                if (userDetails.getUsername().equals(verified.subject())) {
+                    UsernamePasswordAuthenticationToken authToken =
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
-            if (jwtUtility.validateToken(userDetails, token)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                }
+            });
         }
 
         filterChain.doFilter(request, response);
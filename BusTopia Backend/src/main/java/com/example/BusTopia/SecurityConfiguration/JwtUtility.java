@@ -1,17 +1,22 @@
 package com.example.BusTopia.SecurityConfiguration;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Date;
+import java.util.List;
 
 @Component
 public class JwtUtility {
@@ -22,41 +27,73 @@ public class JwtUtility {
     @Value("${jwt.expiration}")
     private long expirationMs;
 
+    private static final String AUTHORITIES_CLAIM = "authorities";
+
+    // Derived from the secret once, the parser is immutable and thread-safe
+    private volatile SecretKey secretKey;
+    private volatile JwtParser parser;
+
+    public record VerifiedToken(String subject, List<String> authorities, Date expiresAt) {
+        public boolean isExpired() {
+            return expiresAt != null && expiresAt.before(new Date());
+        }
+    }
+
     public SecretKey getSecretKey(){
-        byte[] bytes = Base64.getDecoder().decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(bytes);
+        SecretKey key = secretKey;
+        if (key == null) {
+            byte[] bytes = Base64.getDecoder().decode(SECRET_KEY);
+            key = Keys.hmacShaKeyFor(bytes);
+            secretKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser parser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parserBuilder().setSigningKey(getSecretKey()).build();
+            parser = current;
+        }
+        return current;
     }
 
     public String generateToken(UserDetails userDetails){
         return Jwts.builder()
                 .setSubject(userDetails.getUsername())
+                .claim(AUTHORITIES_CLAIM, userDetails.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .toList())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis()+expirationMs))
                 .signWith(getSecretKey() , SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Checks the signature and expiry with a single parse.
+     * Throws a JwtException if the token is malformed, forged or expired.
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = parser().parseClaimsJws(token).getBody();
+        List<String> authorities = new ArrayList<>();
+        if (claims.get(AUTHORITIES_CLAIM) instanceof List<?> values) {
+            values.forEach(value -> authorities.add(String.valueOf(value)));
+        }
+        return new VerifiedToken(claims.getSubject(), List.copyOf(authorities), claims.getExpiration());
+    }
+
     public String extractUserName(String token){
-        return Jwts.parserBuilder()
-                .setSigningKey(getSecretKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verify(token).subject();
     }
 
     public boolean isExpired( String token){
-        Date exp = Jwts.parserBuilder()
-                .setSigningKey(getSecretKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
-        return exp.before(new Date());
+        return verify(token).isExpired();
     }
 
     public boolean validateToken(UserDetails userDetails , String token){
-        return userDetails.getUsername().equals( extractUserName(token) ) && !isExpired(token);
+        VerifiedToken verified = verify(token);
+        return userDetails.getUsername().equals(verified.subject()) && !verified.isExpired();
     }
 
     public String extractTokenFromRequest(HttpServletRequest request) {
@@ -0,0 +1,78 @@
+package com.example.BusTopia.SecurityConfiguration;
+
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens that already passed signature verification, so repeat requests with the same JWT skip the HMAC.
+ * An entry lives until the token itself expires; the cache is capped at a fixed number of tokens.
+ * Entries are keyed by the SHA-256 digest of the token, so a heap dump does not hold usable bearer tokens.
+ */
+@Component
+public class JwtVerificationCache {
+
+    private final JwtUtility jwtUtility;
+    private final int maxEntries;
+    private final Map<String, JwtUtility.VerifiedToken> verified = new ConcurrentHashMap<>();
+
+    public JwtVerificationCache(JwtUtility jwtUtility, @Value("${jwt.verification-cache.max-entries:10000}") int maxEntries) {
+        this.jwtUtility = jwtUtility;
+        this.maxEntries = maxEntries;
+    }
+
+    // The verified claims, or empty if the token is invalid or expired
+    public Optional<JwtUtility.VerifiedToken> verify(String token) {
+        String key = key(token);
+        JwtUtility.VerifiedToken cached = verified.get(key);
+        if (cached != null) {
+            if (!cached.isExpired()) return Optional.of(cached);
+            verified.remove(key, cached);
+            return Optional.empty();
+        }
+
+        JwtUtility.VerifiedToken parsed;
+        try {
+            parsed = jwtUtility.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (verified.size() >= maxEntries) {
+            evict();
+        }
+        verified.put(key, parsed);
+        return Optional.of(parsed);
+    }
+
+    public int size() {
+        return verified.size();
+    }
+
+    // Drops expired tokens first, then arbitrary ones until there is room again
+    private void evict() {
+        verified.values().removeIf(JwtUtility.VerifiedToken::isExpired);
+        Iterator<String> keys = verified.keySet().iterator();
+        while (verified.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String key(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.BusTopia.Services;
+
+import com.example.BusTopia.DTOs.Admin.ReviewExportRow;
+import com.example.BusTopia.DTOs.Admin.TicketExportRow;
+import com.example.BusTopia.MySqlRepositories.ReviewRepository;
+import com.example.BusTopia.MySqlRepositories.TicketRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Streams admin analytics exports page by page. Each page is a keyset query over a fixed-size projection,
+ * written out and dropped before the next one is read, so memory stays the same however many rows exist.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsExportService {
+
+    private final TicketRepository ticketRepository;
+    private final ReviewRepository reviewRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${analytics.export.page-size:1000}")
+    private int pageSize = 1000;
+
+    // Open ends of a date range, kept as real timestamps so the query never binds an untyped null
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        NDJSON(MediaType.APPLICATION_NDJSON),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8));
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public static Format from(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) return format;
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + name);
+        }
+    }
+
+    private static final String[] TICKET_COLUMNS =
+            {"ticketId", "companyName", "price", "source", "destination", "date", "status"};
+    private static final String[] REVIEW_COLUMNS =
+            {"reviewId", "message", "stars", "reviewTime", "companyName", "licenseNo"};
+
+    public void writeTickets(OutputStream out, Format format) throws IOException {
+        export(out, format, TICKET_COLUMNS,
+                afterId -> ticketRepository.findExportPageAfter(afterId, PageRequest.ofSize(pageSize)),
+                TicketExportRow::ticketId,
+                row -> new Object[]{row.ticketId(), row.companyName(), row.price(), row.source(),
+                        row.destination(), row.date(), row.status()});
+    }
+
+    // Reviews written from the start of "from" to the end of "to"; any filter may be null
+    public void writeReviews(OutputStream out, Format format, LocalDate from, LocalDate to, String companyName) throws IOException {
+        LocalDateTime fromTime = from != null ? from.atStartOfDay() : EARLIEST;
+        LocalDateTime toTime = to != null ? to.plusDays(1).atStartOfDay() : LATEST;
+        String company = companyName != null && !companyName.isBlank() ? companyName : null;
+        export(out, format, REVIEW_COLUMNS,
+                afterId -> reviewRepository.findExportPageAfter(afterId, fromTime, toTime, company, PageRequest.ofSize(pageSize)),
+                ReviewExportRow::reviewId,
+                row -> new Object[]{row.reviewId(), row.message(), row.stars(), row.reviewTime(),
+                        row.companyName(), row.licenseNo()});
+    }
+
+    private <T> void export(OutputStream out, Format format, String[] columns, IntFunction<List<T>> pageAfter,
+                            Function<T, Integer> idOf, Function<T, Object[]> csvValues) throws IOException {
+        if (format == Format.CSV) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            writeCsvRow(writer, (Object[]) columns);
+            forEachPage(pageAfter, idOf, page -> {
+                for (T row : page) writeCsvRow(writer, csvValues.apply(row));
+            });
+            writer.flush();
+            return;
+        }
+
+        try (SequenceWriter writer = sequenceWriter(out, format)) {
+            forEachPage(pageAfter, idOf, writer::writeAll);
+        }
+        if (format == Format.NDJSON) out.write('\n');
+        out.flush();
+    }
+
+    private <T> void forEachPage(IntFunction<List<T>> pageAfter, Function<T, Integer> idOf,
+                                 PageConsumer<T> consumer) throws IOException {
+        int afterId = 0;
+        while (true) {
+            List<T> page = pageAfter.apply(afterId);
+            if (page.isEmpty()) return;
+            consumer.accept(page);
+            if (page.size() < pageSize) return;
+            afterId = idOf.apply(page.get(page.size() - 1));
+        }
+    }
+
+    // JSON is one array written element by element, NDJSON one object per line; the generator buffers, no flush per row
+    private SequenceWriter sequenceWriter(OutputStream out, Format format) throws IOException {
+        var writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return format == Format.JSON
+                ? writer.writeValuesAsArray(out)
+                : writer.withRootValueSeparator("\n").writeValues(out);
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            writer.write(csvField(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) return "";
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface PageConsumer<T> {
+        void accept(List<T> page) throws IOException;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.BusTopia.Services;
+
+import com.example.BusTopia.DTOs.BuyTicket.BusSearchRequest;
+import com.example.BusTopia.DTOs.BuyTicket.BusSearchResponse;
+import com.example.BusTopia.DatabaseEntity.Bus;
+import com.example.BusTopia.DatabaseEntity.Route;
+import com.example.BusTopia.DatabaseEntity.TimeMapping;
+import com.example.BusTopia.Inventory.SeatInventory;
+import com.example.BusTopia.Inventory.SeatInventoryService;
+import com.example.BusTopia.MySqlRepositories.SeatAvailabilityMappingRepository;
+import com.example.BusTopia.MySqlRepositories.TimeMappingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Search for the buy-ticket page. Prices, segment durations and seat counts are fetched once
+ * for all candidate buses and the responses are assembled in a single pass, instead of
+ * issuing price, seat and time-mapping queries for every bus.
+ */
+@Service
+@RequiredArgsConstructor
+public class BusSearchService {
+    private final RouteService routeService;
+    private final PriceMatrixService priceMatrixService;
+    private final TimeMappingRepository timeMappingRepository;
+    private final SeatAvailabilityMappingRepository seatAvailabilityRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final RouteTimetableIndex routeTimetableIndex;
+    private Clock clock = Clock.systemDefaultZone();
+
+    // Setter for test override
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    public List<BusSearchResponse> search(BusSearchRequest request) {
+        String source = request.getSource();
+        String destination = request.getDestination();
+        LocalDate date = request.getDate();
+
+        List<Route> routes = routeService.getRoutesContainingSourceAndDestination(source, destination);
+        if (routes.isEmpty()) return List.of();
+        List<Bus> buses = routeService.getBusesOnRoutes(routes);
+        if (buses.isEmpty()) return List.of();
+
+        Map<String, Integer> pricesByCategory = priceMatrixService.pricesByCategory(source, destination);
+        Map<String, Integer> segmentDurations = segmentDurations(routes, source);
+        Map<Integer, Integer> availableSeats = availableSeats(buses, date);
+
+        LocalDateTime thresholdTime = LocalDateTime.now(clock).plusMinutes(15);
+        String category = request.getCategory();
+
+        List<BusSearchResponse> responses = new ArrayList<>();
+        for (Bus bus : buses) {
+            if (category != null && !category.isEmpty() && !category.equalsIgnoreCase(bus.getCategory())) continue;
+
+            LocalTime departureTime = departureTime(bus, source, segmentDurations);
+            // Skip buses with invalid data, and those leaving within the next 15 minutes
+            if (departureTime == null || LocalDateTime.of(date, departureTime).isBefore(thresholdTime)) continue;
+
+            int price = pricesByCategory.getOrDefault(bus.getCategory().toLowerCase(), 0);
+            if (price < request.getMin_budget() || price > request.getMax_budget()) continue;
+
+            responses.add(new BusSearchResponse(
+                    bus.getBusId(),
+                    bus.getCompanyName(),
+                    bus.getLicenseNo(),
+                    bus.getCategory(),
+                    source,
+                    destination,
+                    departureTime,
+                    price,
+                    availableSeats.getOrDefault(bus.getBusId(), 0),
+                    bus.getRoute()
+            ));
+        }
+        return responses;
+    }
+
+    // Directed "stop1 -> stop2" durations for the stops of routes the timetable index could not answer
+    private Map<String, Integer> segmentDurations(List<Route> routes, String source) {
+        Set<String> stops = new HashSet<>();
+        for (Route route : routes) {
+            if (route.getStops() != null && routeTimetableIndex.minutesFromOrigin(route, source).isEmpty()) {
+                stops.addAll(route.getStops());
+            }
+        }
+        Map<String, Integer> durations = new HashMap<>();
+        if (stops.isEmpty()) return durations;
+        for (TimeMapping mapping : timeMappingRepository.findAllAmongStops(stops)) {
+            durations.putIfAbsent(segmentKey(mapping.getStop1(), mapping.getStop2()), mapping.getDuration());
+        }
+        return durations;
+    }
+
+    private LocalTime departureTime(Bus bus, String stop, Map<String, Integer> segmentDurations) {
+        if (bus.getStartTime() == null || bus.getRoute() == null || bus.getRoute().getStops() == null) return null;
+        List<String> routeStops = bus.getRoute().getStops();
+        int stopIndex = routeStops.indexOf(stop);
+        if (stopIndex == -1) return null;
+
+        OptionalInt offset = routeTimetableIndex.minutesFromOrigin(bus.getRoute(), stop);
+        if (offset.isPresent()) return bus.getStartTime().plusMinutes(offset.getAsInt());
+
+        long minutes = 0;
+        for (int i = 0; i < stopIndex; i++) {
+            // Same preference as findDurationBetweenStops: the row in travel direction, else the reverse one
+            Integer duration = segmentDurations.get(segmentKey(routeStops.get(i), routeStops.get(i + 1)));
+            if (duration == null) duration = segmentDurations.get(segmentKey(routeStops.get(i + 1), routeStops.get(i)));
+            if (duration == null) return null;
+            minutes += duration;
+        }
+        return bus.getStartTime().plusMinutes(minutes);
+    }
+
+    private Map<Integer, Integer> availableSeats(List<Bus> buses, LocalDate date) {
+        Map<Integer, Integer> seats = new HashMap<>();
+        List<Integer> unloaded = new ArrayList<>();
+        for (Bus bus : buses) {
+            Optional<SeatInventory> inventory = seatInventoryService.findLoaded(bus.getBusId(), date);
+            if (inventory.isPresent()) {
+                seats.put(bus.getBusId(), inventory.get().getAvailableSeats());
+            } else {
+                // Nothing booked yet means the whole layout is free
+                seats.put(bus.getBusId(), seatInventoryService.getTotalSeats(bus));
+                unloaded.add(bus.getBusId());
+            }
+        }
+        if (!unloaded.isEmpty()) {
+            for (Object[] row : seatAvailabilityRepository.findAvailableSeatsByBusIdsAndJourneyDate(unloaded, date)) {
+                seats.put((Integer) row[0], (Integer) row[1]);
+            }
+        }
+        return seats;
+    }
+
+    private static String segmentKey(String stop1, String stop2) {
+        return stop1 + "\u0000" + stop2;
+    }
+}
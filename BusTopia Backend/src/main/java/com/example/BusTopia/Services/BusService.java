@@ -6,7 +6,6 @@ import com.example.BusTopia.MySqlRepositories.TimeMappingRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import com.example.BusTopia.DTOs.BusInfo.BusInfoDto;
-import com.example.BusTopia.MySqlRepositories.PriceMappingRepository;
 
 import java.time.*;
 import java.util.*;
@@ -17,8 +16,9 @@ import java.util.stream.Collectors;
 public class BusService {
     private final BusRepository busRepository;
     private final RouteService routeService;
-    private final PriceMappingRepository priceMappingRepository;
+    private final PriceMatrixService priceMatrixService;
     private final TimeMappingRepository timeMappingRepository;
+    private final RouteTimetableIndex routeTimetableIndex;
     private Clock clock = Clock.systemDefaultZone(); // default clock
 
     // Setter for test override
@@ -27,7 +27,7 @@ public class BusService {
     }
 
     public BusInfoDto getBusInfo(Integer busId) {
-        Bus bus = busRepository.findById(busId)
+        Bus bus = busRepository.findWithRouteAndSeatLayoutByBusId(busId)
                 .orElseThrow(() -> new RuntimeException("Bus not found"));
 
         BusInfoDto dto = new BusInfoDto();
@@ -67,7 +67,7 @@ public class BusService {
         for (int i = 0; i < stops.size() - 1; i++) {
             String stop1 = stops.get(i);
             String stop2 = stops.get(i + 1);
-            Optional<Integer> priceOpt = priceMappingRepository.getPrice(stop1, stop2, bus.getCategory());
+            Optional<Integer> priceOpt = priceMatrixService.getPrice(stop1, stop2, bus.getCategory());
             priceOpt.ifPresent(price -> {
                 BusInfoDto.PriceMappingDto pdto = new BusInfoDto.PriceMappingDto();
                 pdto.setStop1(stop1);
@@ -84,7 +84,10 @@ public class BusService {
         for (int i = 0; i < stops.size() - 1; i++) {
             String stop1 = stops.get(i);
             String stop2 = stops.get(i + 1);
-            Optional<Integer> durationOpt = timeMappingRepository.findDurationBetweenStops(stop1, stop2);
+            OptionalInt indexed = routeTimetableIndex.segmentMinutes(stop1, stop2);
+            Optional<Integer> durationOpt = indexed.isPresent()
+                    ? Optional.of(indexed.getAsInt())
+                    : timeMappingRepository.findDurationBetweenStops(stop1, stop2);
             durationOpt.ifPresent(duration -> {
                 BusInfoDto.TimeMappingDto tdto = new BusInfoDto.TimeMappingDto();
                 tdto.setStop1(stop1);
@@ -122,6 +125,12 @@ public class BusService {
             return baseStartTime;
         }
 
+        // Precomputed offset from the route's origin, falls back to walking the segments
+        OptionalInt offset = routeTimetableIndex.minutesFromOrigin(bus.getRoute(), stop);
+        if (offset.isPresent()) {
+            return baseStartTime.plusMinutes(offset.getAsInt());
+        }
+
         // Calculate cumulative time from first stop to source
         Duration totalDuration = Duration.ZERO;
 
@@ -147,7 +156,7 @@ public class BusService {
     public List<Bus> getBusesForStops(String stop1, String stop2) {
         // Get routes containing both source and destination
         List<Route> routes = routeService.getRoutesContainingSourceAndDestination(stop1, stop2);
-        return busRepository.findByRouteIn(routes);
+        return routeService.getBusesOnRoutes(routes);
     }
 
     public List<Bus> getAvailableBuses(String source, String destination, LocalDate date, String category, int min_budget, int max_budget) {
@@ -0,0 +1,200 @@
+package com.example.BusTopia.Services;
+
+import com.example.BusTopia.DatabaseEntity.PriceMapping;
+import com.example.BusTopia.MySqlRepositories.PriceMappingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * All Price_mapping rows held in memory. Stops and categories are interned to small ints and the
+ * (stop1, stop2, category) key is packed into a long, looked up in an open-addressing table,
+ * so a price lookup neither queries the database nor allocates.
+ * The matrix is rebuilt off to the side and swapped in after price writes commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceMatrixService {
+
+    public static final int NO_PRICE = -1;
+
+    private final PriceMappingRepository priceMappingRepository;
+
+    private volatile PriceMatrix matrix;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        PriceMatrix rebuilt = PriceMatrix.of(priceMappingRepository.findAll());
+        matrix = rebuilt;
+        log.info("Price matrix loaded with {} prices", rebuilt.size());
+    }
+
+    // Reloads once the current transaction commits, however many prices it wrote
+    public void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) return;
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PriceMatrixService.this);
+            }
+        });
+    }
+
+    /**
+     * Price per seat between two stops for a bus category, or NO_PRICE.
+     * Matches names case-insensitively and in either direction, like PriceMappingRepository.getPrice.
+     */
+    public int priceOf(String stop1, String stop2, String category) {
+        PriceMatrix current = matrix;
+        if (current == null) {
+            return priceMappingRepository.getPrice(stop1, stop2, category).orElse(NO_PRICE);
+        }
+        return current.priceOf(stop1, stop2, category);
+    }
+
+    public Optional<Integer> getPrice(String stop1, String stop2, String category) {
+        int price = priceOf(stop1, stop2, category);
+        return price != NO_PRICE ? Optional.of(price) : Optional.empty();
+    }
+
+    // Lower-cased category -> price for every category that has a price between the two stops
+    public Map<String, Integer> pricesByCategory(String stop1, String stop2) {
+        Map<String, Integer> prices = new HashMap<>();
+        PriceMatrix current = matrix;
+        if (current == null) {
+            for (PriceMapping mapping : priceMappingRepository.findByStopsBidirectional(stop1, stop2)) {
+                prices.putIfAbsent(mapping.getCategory().toLowerCase(), (int) mapping.getPrice());
+            }
+            return prices;
+        }
+        for (String category : current.categories()) {
+            int price = current.priceOf(stop1, stop2, category);
+            if (price != NO_PRICE) prices.put(category, price);
+        }
+        return prices;
+    }
+
+    private static final class PriceMatrix {
+        private final Map<String, Integer> stopIds;
+        private final Map<String, Integer> categoryIds;
+        private final String[] categories;
+        // Open-addressing table, 0 marks an empty slot so packed keys are offset by one
+        private final long[] keys;
+        private final int[] prices;
+        private final int mask;
+        private int size;
+
+        private PriceMatrix(Map<String, Integer> stopIds, Map<String, Integer> categoryIds, String[] categories, int capacity) {
+            this.stopIds = stopIds;
+            this.categoryIds = categoryIds;
+            this.categories = categories;
+            int tableSize = Integer.highestOneBit(Math.max(4, capacity * 2 - 1)) << 1;
+            this.keys = new long[tableSize];
+            this.prices = new int[tableSize];
+            this.mask = tableSize - 1;
+        }
+
+        static PriceMatrix of(List<PriceMapping> mappings) {
+            Map<String, Integer> stopIds = new HashMap<>();
+            Map<String, Integer> categoryIds = new HashMap<>();
+            List<String> categories = new ArrayList<>();
+            for (PriceMapping mapping : mappings) {
+                intern(stopIds, mapping.getStop1());
+                intern(stopIds, mapping.getStop2());
+                String category = mapping.getCategory().toLowerCase();
+                if (!categoryIds.containsKey(category)) {
+                    categoryIds.put(category, categories.size());
+                    categories.add(category);
+                }
+                // Exact spelling resolves without lower-casing on lookup
+                categoryIds.putIfAbsent(mapping.getCategory(), categoryIds.get(category));
+            }
+
+            PriceMatrix matrix = new PriceMatrix(stopIds, categoryIds, categories.toArray(new String[0]), mappings.size() * 2);
+            // Rows in travel direction win over the reverse row of the same pair
+            for (PriceMapping mapping : mappings) {
+                matrix.putIfAbsent(mapping.getStop1(), mapping.getStop2(), mapping.getCategory(), (int) mapping.getPrice());
+            }
+            for (PriceMapping mapping : mappings) {
+                matrix.putIfAbsent(mapping.getStop2(), mapping.getStop1(), mapping.getCategory(), (int) mapping.getPrice());
+            }
+            return matrix;
+        }
+
+        private static void intern(Map<String, Integer> stopIds, String stop) {
+            Integer id = stopIds.get(stop.toLowerCase());
+            if (id == null) {
+                id = stopIds.size();
+                stopIds.put(stop.toLowerCase(), id);
+            }
+            stopIds.putIfAbsent(stop, id);
+        }
+
+        int size() {
+            return size;
+        }
+
+        String[] categories() {
+            return categories;
+        }
+
+        int priceOf(String stop1, String stop2, String category) {
+            int from = idOf(stopIds, stop1);
+            int to = idOf(stopIds, stop2);
+            int categoryId = idOf(categoryIds, category);
+            if (from < 0 || to < 0 || categoryId < 0) return NO_PRICE;
+
+            long key = pack(from, to, categoryId);
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) return prices[slot];
+                if (keys[slot] == 0L) return NO_PRICE;
+            }
+        }
+
+        private void putIfAbsent(String stop1, String stop2, String category, int price) {
+            long key = pack(stopIds.get(stop1), stopIds.get(stop2), categoryIds.get(category));
+            int slot = slot(key);
+            while (keys[slot] != 0L) {
+                if (keys[slot] == key) return;
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            prices[slot] = price;
+            size++;
+        }
+
+        private static int idOf(Map<String, Integer> ids, String name) {
+            if (name == null) return -1;
+            Integer id = ids.get(name);
+            if (id == null) id = ids.get(name.toLowerCase());
+            return id != null ? id : -1;
+        }
+
+        // 24 bits per stop and 15 bits of category, plus one so no key is zero
+        private static long pack(int from, int to, int categoryId) {
+            return (((long) from << 39) | ((long) to << 15) | categoryId) + 1L;
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
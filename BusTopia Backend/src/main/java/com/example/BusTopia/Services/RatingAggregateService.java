@@ -0,0 +1,86 @@
+package com.example.BusTopia.Services;
+
+import com.example.BusTopia.DTOs.Review.RatingSummaryResponse;
+import com.example.BusTopia.DatabaseEntity.BusRatingAggregate;
+import com.example.BusTopia.DatabaseEntity.Review;
+import com.example.BusTopia.MySqlRepositories.BusRatingAggregateRepository;
+import com.example.BusTopia.MySqlRepositories.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps Bus_rating_aggregate in step with new reviews inside their transactions, so bus and company
+ * ratings are read from one aggregate row per bus instead of loading and averaging every review.
+ * A nightly rebuild recomputes the rows from Review to pick up reviews written outside submitReview.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RatingAggregateService {
+
+    private final BusRatingAggregateRepository aggregateRepository;
+    private final ReviewRepository reviewRepository;
+
+    public void recordReview(Review review) {
+        LocalDateTime reviewTime = review.getReviewTime() != null ? review.getReviewTime() : LocalDateTime.now();
+        aggregateRepository.addReview(review.getBus().getBusId(), review.getStars(), reviewTime);
+    }
+
+    @Transactional
+    @Scheduled(cron = "${reviews.rating-aggregate.rebuild-cron:0 30 3 * * *}")
+    public int rebuild() {
+        aggregateRepository.lockForRebuild();
+        aggregateRepository.deleteAllRows();
+        int rows = aggregateRepository.insertFromReviews();
+        log.info("Rating aggregates rebuilt from reviews: {} buses", rows);
+        return rows;
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (aggregateRepository.count() == 0 && reviewRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    public RatingSummaryResponse busRating(int busId) {
+        return aggregateRepository.findById(busId)
+                .map(aggregate -> summary(aggregate.getReviewCount(), aggregate.getStarSum(),
+                        List.of(aggregate.getStars1(), aggregate.getStars2(), aggregate.getStars3(),
+                                aggregate.getStars4(), aggregate.getStars5()),
+                        aggregate.getLastReviewTime()))
+                .orElseGet(RatingAggregateService::noReviews);
+    }
+
+    // Ratings of every bus of the company combined, the name is matched ignoring case
+    public RatingSummaryResponse companyRating(String companyName) {
+        List<Object[]> rows = aggregateRepository.sumByCompanyName(companyName);
+        if (rows.isEmpty() || rows.get(0)[0] == null) return noReviews();
+        Object[] row = rows.get(0);
+        return summary(asLong(row[0]), asLong(row[1]),
+                List.of(asLong(row[2]), asLong(row[3]), asLong(row[4]), asLong(row[5]), asLong(row[6])),
+                (LocalDateTime) row[7]);
+    }
+
+    private static RatingSummaryResponse summary(long reviewCount, long starSum, List<Long> starCounts, LocalDateTime lastReviewTime) {
+        double average = reviewCount > 0 ? (double) starSum / reviewCount : 0.0;
+        return new RatingSummaryResponse(reviewCount, average, starCounts, lastReviewTime);
+    }
+
+    private static RatingSummaryResponse noReviews() {
+        return new RatingSummaryResponse(0, 0.0, List.of(0L, 0L, 0L, 0L, 0L), null);
+    }
+
+    private static long asLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -3,6 +3,8 @@ package com.example.BusTopia.Services;
 import com.example.BusTopia.AwsConfiguration.AwsFileUpload;
 import com.example.BusTopia.DTOs.Review.BusDTOResponse;
 import com.example.BusTopia.DTOs.Review.BusInfoAndReviewResponse;
+import com.example.BusTopia.DTOs.Review.ReviewFeedRow;
+import com.example.BusTopia.DTOs.Review.ReviewPageResponse;
 import com.example.BusTopia.DTOs.Review.ReviewDTOResponse;
 import com.example.BusTopia.DTOs.Review.ReviewRequest;
 import com.example.BusTopia.DatabaseEntity.Bus;
@@ -18,7 +20,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
 import org.springframework.core.env.Environment;
 
@@ -29,18 +37,27 @@ public class ReviewService {
     private final UserRepository userRepository;
     private final ReviewRepository reviewRepository;
     private final AwsFileUpload awsFileUpload;
+    private final TravelledBusIndex travelledBusIndex;
+    private final RatingAggregateService ratingAggregateService;
 
     private final Environment environment;
 
 
+    private static final int MAX_REVIEW_PAGE_SIZE = 100;
+    // Position in the review feed, the page starts right after it
+    private record ReviewCursor(LocalDateTime reviewTime, int reviewId) {}
+    private static final ReviewCursor FIRST_PAGE = new ReviewCursor(LocalDateTime.of(9999, 1, 1, 0, 0), Integer.MAX_VALUE);
+
     @Value("${backend.origin}")
     private String backendUrl;
 
-    public ReviewService(BusRepository busRepository, UserRepository userRepository, UserRepository userRepository1, ReviewRepository reviewRepository, AwsFileUpload awsFileUpload, Environment environment) {
+    public ReviewService(BusRepository busRepository, UserRepository userRepository, UserRepository userRepository1, ReviewRepository reviewRepository, AwsFileUpload awsFileUpload, TravelledBusIndex travelledBusIndex, RatingAggregateService ratingAggregateService, Environment environment) {
         this.busRepository = busRepository;
         this.userRepository = userRepository1;
         this.reviewRepository = reviewRepository;
         this.awsFileUpload = awsFileUpload;
+        this.travelledBusIndex = travelledBusIndex;
+        this.ratingAggregateService = ratingAggregateService;
         this.environment = environment;
     }
 
@@ -50,35 +67,36 @@ public class ReviewService {
 
     public Page<BusDTOResponse> getAllBusesOfACompanyDTO(String companyName, int page, int size, int userId) {
         Page<Bus> busPage = busRepository.findSpecificCompanyBus(companyName, PageRequest.of(page, size));
+        // One lookup for the whole page instead of an existsTicket query per bus
+        int[] travelledBusIds = travelledBusIndex.busIdsOf(userId);
 
-        return busPage.map(bus -> new BusDTOResponse(
-                        bus.getBusId(),
-                        bus.getCompanyName(),
-                        bus.getLicenseNo(),
-                        bus.getCategory(),
-                        bus.getStartTime(),
-                        backendUrl + "/" + bus.getPhoto(),
-                        bus.getRoute() != null ? bus.getRoute().getStops() : List.of(),
-                        busRepository.existsTicketByUserIdAndBusId(userId, bus.getBusId())
-                ));
+        return busPage.map(bus -> toBusDTO(bus, Arrays.binarySearch(travelledBusIds, bus.getBusId()) >= 0));
     }
 
+    // Every review of the bus, newest first
     public List<ReviewDTOResponse> getReviewsByBusId(int busId) {
-        List<Review> reviewList = reviewRepository.findByBusId(busId);
-        List<ReviewDTOResponse> reviews;
-        reviews = reviewList.stream()
-                .map(review -> new ReviewDTOResponse(
-                        review.getMessage(),
-                        review.getUser().getId(),
-                        review.getUser().getImageUrl(),
-                        review.getReviewTime(),
-                        review.getStars(),
-                        review.getImages(),
-                        review.getUser().getName()
-                ))
+        return reviewRepository.findFeedByBusId(busId).stream()
+                .map(ReviewService::toReviewDTO)
+                .toList();
+    }
+
+    // One page of the bus's reviews, newest first; pass the returned nextCursor to read the page after it
+    public ReviewPageResponse getReviewFeed(int busId, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_REVIEW_PAGE_SIZE);
+        ReviewCursor before = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : FIRST_PAGE;
+
+        // One row more than asked tells whether another page follows
+        List<ReviewFeedRow> rows = reviewRepository.findFeedPageBefore(busId, before.reviewTime(), before.reviewId(),
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<ReviewFeedRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        List<ReviewDTOResponse> reviews = page.stream()
+                .map(ReviewService::toReviewDTO)
                 .toList();
 
-        return reviews;
+        ReviewFeedRow last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return new ReviewPageResponse(reviews, hasMore ? encodeCursor(last) : null);
     }
 
     public BusInfoAndReviewResponse getReviewsByLicenseNo(String licenseNo, int userId) {
@@ -87,39 +105,53 @@ public class ReviewService {
             throw new IllegalArgumentException("No bus found with license number: " + licenseNo);
         }
 
-        BusDTOResponse busDTO = new BusDTOResponse(
-                bus.getBusId(),
-                bus.getCompanyName(),
-                bus.getLicenseNo(),
-                bus.getCategory(),
-                bus.getStartTime(),
-                backendUrl + "/" + bus.getPhoto(),
-                bus.getRoute() != null ? bus.getRoute().getStops() : List.of(),
-                busRepository.existsTicketByUserIdAndBusId(userId, bus.getBusId())
-        );
+        BusDTOResponse busDTO = toBusDTO(bus, travelledBusIndex.hasTravelled(userId, bus.getBusId()));
 
-        List<Review> reviewList = reviewRepository.findByBusId(bus.getBusId());
-
-        List<ReviewDTOResponse> reviews = reviewList.stream()
-                .map(review -> new ReviewDTOResponse(
-                        review.getMessage(),
-                        review.getUser().getId(),
-                        review.getUser().getImageUrl(),
-                        review.getReviewTime(),
-                        review.getStars(),
-                        review.getImages(),
-                        review.getUser().getName()
-                ))
-                .toList();
+        List<ReviewDTOResponse> reviews = getReviewsByBusId(bus.getBusId());
 
         return new BusInfoAndReviewResponse(busDTO, reviews);
     }
 
+    private static ReviewDTOResponse toReviewDTO(ReviewFeedRow row) {
+        return new ReviewDTOResponse(
+                row.message(),
+                row.userId(),
+                row.userPhoto(),
+                row.reviewTime(),
+                row.stars(),
+                row.images(),
+                row.userName()
+        );
+    }
+
+    private static String encodeCursor(ReviewFeedRow row) {
+        String cursor = row.reviewTime() + "_" + row.reviewId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ReviewCursor decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("_");
+            if (parts.length != 2) throw new IllegalArgumentException("Invalid review cursor");
+            return new ReviewCursor(LocalDateTime.parse(parts[0]), Integer.parseInt(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid review cursor");
+        }
+    }
+
     public List<BusDTOResponse> getTravelledBuses(int userId) {
-        List<Bus> buses = busRepository.getTravelledBuses(userId);
+        int[] busIds = travelledBusIndex.busIdsOf(userId);
+        if (busIds.length == 0) return List.of();
+
+        // Every bus here has a ticket of the user, so each one can be reviewed
+        return busRepository.findByBusIdIn(Arrays.stream(busIds).boxed().toList()).stream()
+                .sorted(Comparator.comparing(Bus::getBusId))
+                .map(bus -> toBusDTO(bus, true))
+                .toList();
+    }
 
-        return buses.stream()
-                .map(bus -> new BusDTOResponse(
+    private BusDTOResponse toBusDTO(Bus bus, boolean canCurrentUserReview) {
+        return new BusDTOResponse(
                 bus.getBusId(),
                 bus.getCompanyName(),
                 bus.getLicenseNo(),
@@ -127,8 +159,8 @@ public class ReviewService {
                 bus.getStartTime(),
                 backendUrl + "/" + bus.getPhoto(),
                 bus.getRoute() != null ? bus.getRoute().getStops() : List.of(),
-                busRepository.existsTicketByUserIdAndBusId(userId, bus.getBusId())
-        )).toList();
+                canCurrentUserReview
+        );
     }
 
     @Transactional
@@ -155,10 +187,15 @@ public class ReviewService {
         }
 
         // Check if user has traveled on this bus
-        boolean hasTraveled = busRepository.existsTicketByUserIdAndBusId(
+        boolean hasTraveled = travelledBusIndex.hasTravelled(reviewRequest.getUserId(), reviewRequest.getBusId());
+        if (!hasTraveled && busRepository.existsTicketByUserIdAndBusId(
                 (int) reviewRequest.getUserId(),
                 reviewRequest.getBusId()
-        );
+        )) {
+            // Booked on another instance after the index was loaded
+            hasTraveled = true;
+            travelledBusIndex.evict(reviewRequest.getUserId());
+        }
 
         if (!hasTraveled) {
             throw new IllegalArgumentException("You must have traveled on this bus to leave a review");
@@ -180,6 +217,7 @@ public class ReviewService {
                 .orElseThrow(() -> new IllegalArgumentException("Bus not found")));
 
         Review savedReview = reviewRepository.save(review);
+        ratingAggregateService.recordReview(savedReview);
 
         // Return response
         return new ReviewDTOResponse(
@@ -1,6 +1,8 @@
 package com.example.BusTopia.Services;
 
+import com.example.BusTopia.DatabaseEntity.Bus;
 import com.example.BusTopia.DatabaseEntity.Route;
+import com.example.BusTopia.MySqlRepositories.BusRepository;
 import com.example.BusTopia.MySqlRepositories.PriceMappingRepository;
 import com.example.BusTopia.MySqlRepositories.RouteRepository;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +15,8 @@ import java.util.List;
 public class RouteService {
     private final PriceMappingRepository priceMappingRepository;
     private final RouteRepository routeRepository;
+    private final BusRepository busRepository;
+    private final RouteStopIndex routeStopIndex;
 
     public List<String> getAllStops() {
         return priceMappingRepository.findAllDistinctStops();
@@ -23,6 +27,19 @@ public class RouteService {
     }
 
     public List<Route> getRoutesContainingSourceAndDestination(String source, String destination) {
+        // The array scan is only needed until the stop index is built at startup
+        if (routeStopIndex.isReady()) {
+            return routeStopIndex.findRoutes(source, destination);
+        }
         return routeRepository.findRoutesContainingBothStops(source, destination);
     }
+
+    public List<Bus> getBusesOnRoutes(List<Route> routes) {
+        if (routes.isEmpty()) return List.of();
+        if (routeStopIndex.isReady()) {
+            List<Integer> busIds = routeStopIndex.findBusIds(routes);
+            return busIds.isEmpty() ? List.of() : busRepository.findByBusIdIn(busIds);
+        }
+        return busRepository.findByRouteIn(routes);
+    }
 }
@@ -0,0 +1,181 @@
+package com.example.BusTopia.Services;
+
+import com.example.BusTopia.DatabaseEntity.Bus;
+import com.example.BusTopia.DatabaseEntity.Route;
+import com.example.BusTopia.MySqlRepositories.BusRepository;
+import com.example.BusTopia.MySqlRepositories.RouteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Inverted index from stop name to the routes passing through it, with the stop's position on each route,
+ * plus the buses assigned to every route. "Routes where A comes before B" is a merge of two postings
+ * lists sorted by routeId, replacing the stops @> ARRAY[...] scan of the route table.
+ * Readers work on an immutable snapshot; Route and Bus writes rebuild it from the in-memory copies.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RouteStopIndex {
+
+    private final RouteRepository routeRepository;
+    private final BusRepository busRepository;
+
+    // Source of truth for snapshots, only touched under the index lock
+    private final Map<Integer, List<String>> routeStops = new HashMap<>();
+    private final Map<Integer, Integer> busRoutes = new HashMap<>();
+
+    private volatile Snapshot snapshot;
+
+    // routeIds ascending, positions[i] is the first position of the stop on routeIds[i]
+    private record Postings(int[] routeIds, int[] positions) {}
+
+    private record Snapshot(Map<String, Postings> postings, Map<Integer, List<String>> stops, Map<Integer, int[]> busIds) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        routeStops.clear();
+        for (Route route : routeRepository.findAll()) {
+            if (route.getStops() != null) routeStops.put(route.getRouteId(), List.copyOf(route.getStops()));
+        }
+        busRoutes.clear();
+        for (Object[] row : busRepository.findBusIdAndRouteId()) {
+            busRoutes.put((Integer) row[0], (Integer) row[1]);
+        }
+        publish();
+        log.info("Route stop index built for {} routes and {} buses", routeStops.size(), busRoutes.size());
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    // Routes on which source is visited before destination, ordered by routeId
+    public List<Route> findRoutes(String source, String destination) {
+        Snapshot current = requireSnapshot();
+        Postings from = current.postings().get(source);
+        Postings to = current.postings().get(destination);
+        if (from == null || to == null) return List.of();
+
+        List<Route> routes = new ArrayList<>();
+        int i = 0, j = 0;
+        while (i < from.routeIds().length && j < to.routeIds().length) {
+            int a = from.routeIds()[i];
+            int b = to.routeIds()[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                if (from.positions()[i] < to.positions()[j]) {
+                    Route route = new Route();
+                    route.setRouteId(a);
+                    route.setStops(current.stops().get(a));
+                    routes.add(route);
+                }
+                i++;
+                j++;
+            }
+        }
+        return routes;
+    }
+
+    public List<Integer> findBusIds(Collection<Route> routes) {
+        Snapshot current = requireSnapshot();
+        List<Integer> busIds = new ArrayList<>();
+        for (Route route : routes) {
+            int[] ids = current.busIds().get(route.getRouteId());
+            if (ids == null) continue;
+            for (int id : ids) busIds.add(id);
+        }
+        return busIds;
+    }
+
+    public synchronized void onRouteSaved(Route route) {
+        if (snapshot == null || route.getRouteId() == null) return;
+        if (route.getStops() != null) {
+            routeStops.put(route.getRouteId(), List.copyOf(route.getStops()));
+        } else {
+            routeStops.remove(route.getRouteId());
+        }
+        publish();
+    }
+
+    public synchronized void onRouteRemoved(Route route) {
+        if (snapshot == null || route.getRouteId() == null) return;
+        routeStops.remove(route.getRouteId());
+        publish();
+    }
+
+    public synchronized void onBusSaved(Bus bus) {
+        if (snapshot == null || bus.getBusId() == null) return;
+        Integer routeId = bus.getRoute() != null ? bus.getRoute().getRouteId() : null;
+        if (Objects.equals(busRoutes.get(bus.getBusId()), routeId)) return;
+        if (routeId != null) {
+            busRoutes.put(bus.getBusId(), routeId);
+        } else {
+            busRoutes.remove(bus.getBusId());
+        }
+        publish();
+    }
+
+    // Bulk reroute written with plain SQL, busId -> new routeId
+    public synchronized void onBusesRerouted(Map<Integer, Integer> newRoutes) {
+        if (snapshot == null || newRoutes.isEmpty()) return;
+        busRoutes.putAll(newRoutes);
+        publish();
+    }
+
+    public synchronized void onBusRemoved(Bus bus) {
+        if (snapshot == null || bus.getBusId() == null) return;
+        if (busRoutes.remove(bus.getBusId()) != null) publish();
+    }
+
+    private Snapshot requireSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Route stop index is not built yet");
+        }
+        return current;
+    }
+
+    private void publish() {
+        Map<String, List<int[]>> entries = new HashMap<>();
+        for (Map.Entry<Integer, List<String>> route : routeStops.entrySet()) {
+            List<String> stops = route.getValue();
+            Set<String> seen = new HashSet<>();
+            for (int position = 0; position < stops.size(); position++) {
+                // Like array_position, a stop repeated on a route counts at its first occurrence
+                if (seen.add(stops.get(position))) {
+                    entries.computeIfAbsent(stops.get(position), s -> new ArrayList<>())
+                            .add(new int[]{route.getKey(), position});
+                }
+            }
+        }
+
+        Map<String, Postings> postings = new HashMap<>();
+        for (Map.Entry<String, List<int[]>> entry : entries.entrySet()) {
+            List<int[]> list = entry.getValue();
+            list.sort(Comparator.comparingInt(e -> e[0]));
+            int[] routeIds = new int[list.size()];
+            int[] positions = new int[list.size()];
+            for (int k = 0; k < list.size(); k++) {
+                routeIds[k] = list.get(k)[0];
+                positions[k] = list.get(k)[1];
+            }
+            postings.put(entry.getKey(), new Postings(routeIds, positions));
+        }
+
+        Map<Integer, List<Integer>> busesByRoute = new HashMap<>();
+        busRoutes.forEach((busId, routeId) -> busesByRoute.computeIfAbsent(routeId, id -> new ArrayList<>()).add(busId));
+        Map<Integer, int[]> busIds = new HashMap<>();
+        busesByRoute.forEach((routeId, ids) -> busIds.put(routeId, ids.stream().mapToInt(Integer::intValue).sorted().toArray()));
+
+        snapshot = new Snapshot(postings, Map.copyOf(routeStops), busIds);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.BusTopia.Services;
+
+import com.example.BusTopia.DatabaseEntity.Route;
+import com.example.BusTopia.DatabaseEntity.TimeMapping;
+import com.example.BusTopia.MySqlRepositories.RouteRepository;
+import com.example.BusTopia.MySqlRepositories.TimeMappingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cumulative travel minutes from the first stop of every route, built from Route.stops and Time_mapping.
+ * Looking up when a bus reaches a stop is a hash lookup plus an array read instead of one
+ * findDurationBetweenStops query per segment. Time_mapping, Route and Bus writes (including reroutes)
+ * refresh only the affected routes through RouteIndexEntityListener.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RouteTimetableIndex {
+
+    private final RouteRepository routeRepository;
+    private final TimeMappingRepository timeMappingRepository;
+
+    // Time_mapping rows by id, so updates and deletes can retract the old segment
+    private final Map<Integer, TimeMapping> segmentRows = new ConcurrentHashMap<>();
+    // Directed "stop1 -> stop2" minutes derived from segmentRows
+    private final Map<String, Integer> segmentMinutes = new ConcurrentHashMap<>();
+    private final Map<Integer, RouteTimetable> timetables = new ConcurrentHashMap<>();
+
+    private record RouteTimetable(List<String> stops, Map<String, Integer> positions, int[] offsets) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        segmentRows.clear();
+        segmentMinutes.clear();
+        for (TimeMapping mapping : timeMappingRepository.findAll()) {
+            segmentRows.put(mapping.getMappingId(), copyOf(mapping));
+            segmentMinutes.putIfAbsent(segmentKey(mapping.getStop1(), mapping.getStop2()), mapping.getDuration());
+        }
+        timetables.clear();
+        for (Route route : routeRepository.findAll()) {
+            indexRoute(route);
+        }
+        log.info("Route timetable index built for {} routes from {} time mappings", timetables.size(), segmentRows.size());
+    }
+
+    /**
+     * Minutes from the route's first stop to the given stop.
+     * Empty if the stop is not on the route or a segment before it has no time mapping.
+     */
+    public OptionalInt minutesFromOrigin(Route route, String stop) {
+        if (route == null || route.getRouteId() == null) return OptionalInt.empty();
+        RouteTimetable timetable = timetables.get(route.getRouteId());
+        if (timetable == null) {
+            // Routes created after the last rebuild are indexed on first use
+            if (route.getStops() == null) return OptionalInt.empty();
+            timetable = indexRoute(route);
+        }
+        Integer position = timetable.positions().get(stop);
+        if (position == null || timetable.offsets()[position] < 0) return OptionalInt.empty();
+        return OptionalInt.of(timetable.offsets()[position]);
+    }
+
+    // Same direction preference as findDurationBetweenStops: the row in travel direction, else the reverse one
+    public OptionalInt segmentMinutes(String stop1, String stop2) {
+        Integer minutes = segmentMinutes.get(segmentKey(stop1, stop2));
+        if (minutes == null) minutes = segmentMinutes.get(segmentKey(stop2, stop1));
+        return minutes != null ? OptionalInt.of(minutes) : OptionalInt.empty();
+    }
+
+    public synchronized void onTimeMappingSaved(TimeMapping mapping) {
+        TimeMapping previous = segmentRows.put(mapping.getMappingId(), copyOf(mapping));
+        Set<String> touchedStops = new HashSet<>(List.of(mapping.getStop1(), mapping.getStop2()));
+        if (previous != null) {
+            touchedStops.add(previous.getStop1());
+            touchedStops.add(previous.getStop2());
+        }
+        refreshSegments(touchedStops);
+    }
+
+    public synchronized void onTimeMappingRemoved(TimeMapping mapping) {
+        TimeMapping previous = segmentRows.remove(mapping.getMappingId());
+        Set<String> touchedStops = new HashSet<>(List.of(mapping.getStop1(), mapping.getStop2()));
+        if (previous != null) {
+            touchedStops.add(previous.getStop1());
+            touchedStops.add(previous.getStop2());
+        }
+        refreshSegments(touchedStops);
+    }
+
+    public void onRouteSaved(Route route) {
+        indexRoute(route);
+    }
+
+    // A rerouted bus reads the timetable of its new route, make sure that one is indexed
+    public void onBusRouteAssigned(Route route) {
+        if (route != null && route.getRouteId() != null && !timetables.containsKey(route.getRouteId())) {
+            indexRoute(route);
+        }
+    }
+
+    public void onRouteRemoved(Route route) {
+        if (route.getRouteId() != null) {
+            timetables.remove(route.getRouteId());
+        }
+    }
+
+    private void refreshSegments(Set<String> touchedStops) {
+        segmentMinutes.keySet().removeIf(key -> touchedStops.contains(key.substring(0, key.indexOf('\u0000')))
+                || touchedStops.contains(key.substring(key.indexOf('\u0000') + 1)));
+        for (TimeMapping row : segmentRows.values()) {
+            if (touchedStops.contains(row.getStop1()) || touchedStops.contains(row.getStop2())) {
+                segmentMinutes.putIfAbsent(segmentKey(row.getStop1(), row.getStop2()), row.getDuration());
+            }
+        }
+        timetables.replaceAll((routeId, timetable) ->
+                Collections.disjoint(timetable.stops(), touchedStops) ? timetable : build(timetable.stops()));
+    }
+
+    private RouteTimetable indexRoute(Route route) {
+        if (route.getRouteId() == null || route.getStops() == null) return build(List.of());
+        RouteTimetable timetable = build(route.getStops());
+        timetables.put(route.getRouteId(), timetable);
+        return timetable;
+    }
+
+    private RouteTimetable build(List<String> routeStops) {
+        List<String> stops = List.copyOf(routeStops);
+        Map<String, Integer> positions = new HashMap<>();
+        int[] offsets = new int[stops.size()];
+        int minutes = 0;
+        for (int i = 0; i < stops.size(); i++) {
+            positions.putIfAbsent(stops.get(i), i);
+            if (i > 0) {
+                OptionalInt segment = minutes < 0 ? OptionalInt.empty() : segmentMinutes(stops.get(i - 1), stops.get(i));
+                // Once a segment is missing, every later stop is unknown
+                minutes = segment.isPresent() ? minutes + segment.getAsInt() : -1;
+            }
+            offsets[i] = minutes;
+        }
+        return new RouteTimetable(stops, positions, offsets);
+    }
+
+    private static TimeMapping copyOf(TimeMapping mapping) {
+        TimeMapping copy = new TimeMapping();
+        copy.setMappingId(mapping.getMappingId());
+        copy.setStop1(mapping.getStop1());
+        copy.setStop2(mapping.getStop2());
+        copy.setDuration(mapping.getDuration());
+        return copy;
+    }
+
+    private static String segmentKey(String stop1, String stop2) {
+        return stop1 + "\u0000" + stop2;
+    }
+}
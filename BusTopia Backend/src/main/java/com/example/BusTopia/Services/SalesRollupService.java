@@ -0,0 +1,85 @@
+package com.example.BusTopia.Services;
+
+import com.example.BusTopia.DatabaseEntity.Ticket;
+import com.example.BusTopia.MySqlRepositories.RouteSalesRollupRepository;
+import com.example.BusTopia.MySqlRepositories.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps Route_sales_rollup in step with bookings and cancellations inside their transactions, so the
+ * admin sales report and the pricing and rerouting schedulers sum a few rollup rows instead of scanning Ticket.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupService {
+
+    private final RouteSalesRollupRepository rollupRepository;
+    private final TicketRepository ticketRepository;
+
+    public void recordSale(Ticket ticket) {
+        add(ticket, 1);
+    }
+
+    public void recordCancellation(Ticket ticket) {
+        add(ticket, -1);
+    }
+
+    private void add(Ticket ticket, int sign) {
+        int seats = ticket.getSeats() != null ? ticket.getSeats().size() : 0;
+        int price = ticket.getPrice() != null ? ticket.getPrice() : 0;
+        rollupRepository.addSales(ticket.getBus().getBusId(), ticket.getSource(), ticket.getDestination(),
+                ticket.getBus().getCategory(), ticket.getDate(), sign, (long) sign * seats, (long) sign * price);
+    }
+
+    // Recomputes every rollup from the ticket table, e.g. after deploying the rollups onto existing data
+    @Transactional
+    public int backfill() {
+        rollupRepository.lockForBackfill();
+        rollupRepository.deleteAllRows();
+        int rows = rollupRepository.insertFromTickets();
+        log.info("Sales rollups rebuilt from tickets: {} rows", rows);
+        return rows;
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && ticketRepository.count() > 0) {
+            backfill();
+        }
+    }
+
+    // [source, destination, price, ticketsSold, totalRevenue] per price mapping, for the admin sales report
+    public List<Object[]> salesByRouteWithPrice() {
+        return rollupRepository.getSalesByRouteWithPrice();
+    }
+
+    // "source|destination|category" -> seats sold on journeys since the cutoff
+    public Map<String, Long> seatsSoldByStopsAndCategorySince(LocalDate cutoff) {
+        Map<String, Long> seats = new HashMap<>();
+        for (Object[] row : rollupRepository.sumSeatsByStopsAndCategorySince(cutoff)) {
+            seats.put(stopsAndCategoryKey((String) row[0], (String) row[1], (String) row[2]), ((Number) row[3]).longValue());
+        }
+        return seats;
+    }
+
+    // [busId, routeId or null, companyName, seatsSold] for every bus, ordered by busId
+    public List<Object[]> busDemandAfter(LocalDate cutoff) {
+        return rollupRepository.sumSeatsPerBusAfter(cutoff);
+    }
+
+    public static String stopsAndCategoryKey(String source, String destination, String category) {
+        return source + "|" + destination + "|" + category;
+    }
+}
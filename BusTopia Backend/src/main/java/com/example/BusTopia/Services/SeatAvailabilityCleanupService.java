@@ -1,5 +1,7 @@
 package com.example.BusTopia.Services;
 
+import com.example.BusTopia.Inventory.SeatInventoryService;
+import com.example.BusTopia.MySqlRepositories.BookedSeatRepository;
 import com.example.BusTopia.MySqlRepositories.SeatAvailabilityMappingRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,11 +16,15 @@ import java.time.LocalDate;
 public class SeatAvailabilityCleanupService {
 
     private final SeatAvailabilityMappingRepository repository;
+    private final SeatInventoryService seatInventoryService;
+    private final BookedSeatRepository bookedSeatRepository;
 
     @Scheduled(cron = "0 0 3 * * ?") // every day at 3 AM
     public void deleteOldSeatAvailabilityRecords() {
         LocalDate today = LocalDate.now();
+        seatInventoryService.evictBefore(today);
         repository.deleteByJourneyDateBefore(today);
+        bookedSeatRepository.deleteByJourneyDateBefore(today);
         log.info("Old seat availability records deleted for dates before {}", today);
     }
 }
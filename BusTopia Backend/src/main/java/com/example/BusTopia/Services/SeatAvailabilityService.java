@@ -1,11 +1,15 @@
 package com.example.BusTopia.Services;
 
+import com.example.BusTopia.DTOs.SeatAvailability.SeatStatusResponse;
 import com.example.BusTopia.DatabaseEntity.SeatAvailabilityMapping;
+import com.example.BusTopia.Inventory.SeatInventory;
+import com.example.BusTopia.Inventory.SeatInventoryService;
 import com.example.BusTopia.MySqlRepositories.SeatAvailabilityMappingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -15,8 +19,27 @@ public class SeatAvailabilityService {
     @Autowired
     private SeatAvailabilityMappingRepository seatAvailabilityMappingRepository;
 
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
     public Optional<Map<String, Long>> getBookedSeatsByBusIdAndDate(Integer busId, LocalDate journeyDate) {
+        // A loaded inventory is ahead of the mapping row until the next write-behind flush
+        Optional<SeatInventory> inventory = seatInventoryService.findLoaded(busId, journeyDate);
+        if (inventory.isPresent()) {
+            return inventory.map(SeatInventory::bookedSeats);
+        }
         return seatAvailabilityMappingRepository.findByBus_BusIdAndJourneyDate(busId, journeyDate)
                 .map(SeatAvailabilityMapping::getBookedSeats);
     }
-}
\ No newline at end of file
+
+    // Booked seats with their ticket ids, plus the seats held for payments that are still open
+    public Optional<SeatStatusResponse> getSeatStatusByBusIdAndDate(Integer busId, LocalDate journeyDate) {
+        Optional<SeatInventory> inventory = seatInventoryService.findLoaded(busId, journeyDate);
+        if (inventory.isPresent()) {
+            return inventory.map(seats -> new SeatStatusResponse(seats.bookedSeats(), seats.heldSeats()));
+        }
+        // Holds always load the inventory, so without one there is nothing held
+        return seatAvailabilityMappingRepository.findByBus_BusIdAndJourneyDate(busId, journeyDate)
+                .map(mapping -> new SeatStatusResponse(mapping.getBookedSeats(), List.of()));
+    }
+}
@@ -16,7 +16,7 @@ public class SeatLayoutService {
     private final BusRepository busRepository;
 
     public Optional<SeatLayout> getSeatLayoutByBusId(Integer busId) {
-        return busRepository.findById(busId)
+        return busRepository.findWithRouteAndSeatLayoutByBusId(busId)
                 .map(bus -> bus.getSeatLayout());
     }
 }
\ No newline at end of file
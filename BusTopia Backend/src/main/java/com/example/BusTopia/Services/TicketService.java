@@ -1,14 +1,19 @@
 package com.example.BusTopia.Services;
 
 import com.example.BusTopia.DatabaseEntity.Bus;
-import com.example.BusTopia.DatabaseEntity.SeatAvailabilityMapping;
 import com.example.BusTopia.DatabaseEntity.Ticket;
 import com.example.BusTopia.DatabaseEntity.UserEntity;
+import com.example.BusTopia.Inventory.SeatHold;
+import com.example.BusTopia.Inventory.SeatHoldService;
+import com.example.BusTopia.Inventory.SeatInventory;
+import com.example.BusTopia.Inventory.SeatInventoryService;
 import com.example.BusTopia.MySqlRepositories.*;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.example.BusTopia.DTOs.Admin.TicketSalesResponse;
+import com.example.BusTopia.DTOs.BuyTicket.TicketResponse;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -16,9 +21,6 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.HashMap;
-import com.example.BusTopia.DatabaseEntity.Review;
 
 @Service
 @RequiredArgsConstructor
@@ -27,18 +29,46 @@ public class TicketService {
     private final BusRepository busRepository;
     private final UserRepository userRepository;
     private final TimeMappingRepository timeMappingRepository;
-    private final PriceMappingRepository priceMappingRepository;
-    private final SeatAvailabilityMappingRepository seatAvailabilityRepository;
-    private final ReviewRepository reviewRepository;
+    private final PriceMatrixService priceMatrixService;
+    private final SeatInventoryService seatInventoryService;
+    private final SeatHoldService seatHoldService;
+    private final SalesRollupService salesRollupService;
 
     @Transactional
     public Ticket bookTicket(Long userId, Integer busId, LocalDate date, LocalTime time, String source, String destination, List<String> seats) {
+        return book(null, userId, busId, date, time, source, destination, seats);
+    }
+
+    // Books the seats held for a payment, or claims them afresh if the hold has expired meanwhile
+    @Transactional
+    public Ticket bookHeldTicket(String holdId, Long userId, Integer busId, LocalDate date, LocalTime time, String source, String destination, List<String> seats) {
+        return book(holdId, userId, busId, date, time, source, destination, seats);
+    }
+
+    // Read-only transaction so the bus's lazy seat layout can be read when the inventory is first built
+    @Transactional(readOnly = true)
+    public SeatHold holdSeats(String holdId, Integer busId, LocalDate date, List<String> seats) {
+        validateSeatCount(seats);
+        Bus bus = busRepository.findById(busId)
+                .orElseThrow(() -> new EntityNotFoundException("Bus not found"));
+        return seatHoldService.hold(holdId, bus, date, seats);
+    }
+
+    public void releaseHeldSeats(String holdId) {
+        seatHoldService.release(holdId);
+    }
+
+    private void validateSeatCount(List<String> seats) {
         if (seats == null || seats.isEmpty()) {
             throw new IllegalArgumentException("At least one seat must be selected.");
         }
         if (seats.size() > 4) {
             throw new IllegalArgumentException("Cannot book more than 4 seats.");
         }
+    }
+
+    private Ticket book(String holdId, Long userId, Integer busId, LocalDate date, LocalTime time, String source, String destination, List<String> seats) {
+        validateSeatCount(seats);
 
         Bus bus = busRepository.findById(busId)
                 .orElseThrow(() -> new RuntimeException("Bus not found"));
@@ -46,34 +76,49 @@ public class TicketService {
         UserEntity user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Fetch or create SeatAvailabilityMapping
-        SeatAvailabilityMapping seatAvailability = seatAvailabilityRepository
-                .findByBus_BusIdAndJourneyDate(busId, date)
-                .orElseGet(() -> {
-                    SeatAvailabilityMapping newMapping = new SeatAvailabilityMapping();
-                    newMapping.setBus(bus);
-                    newMapping.setJourneyDate(date);
-                    newMapping.setTotalSeats(
-                            bus.getSeatLayout().getLayout().stream()
-                                    .mapToInt(row -> (int) row.stream().filter(seat -> !seat.isEmpty()).count())
-                                    .sum()
-                    );
-                    newMapping.setAvailableSeats(newMapping.getTotalSeats());
-                    newMapping.setBookedSeats(new java.util.HashMap<>());
-                    return seatAvailabilityRepository.save(newMapping);
-                });
-
-        // Validate seat availability
-        Map<String, Long> bookedSeats = seatAvailability.getBookedSeats();
-        for (String seat : seats) {
-            if (bookedSeats.containsKey(seat)) {
-                throw new IllegalArgumentException("Seat " + seat + " is already booked.");
-            }
+        // Claim the seats atomically in the in-memory inventory
+        SeatInventory inventory = seatInventoryService.getInventory(bus, date);
+        int[] positions = inventory.resolve(seats);
+        SeatInventory.SeatClaim claim = takeHold(holdId, inventory, positions);
+        if (claim == null) {
+            claim = seatInventoryService.claim(inventory, positions);
+        }
+
+        try {
+            Ticket savedTicket = createTicket(bus, user, date, time, source, destination, seats);
+            seatInventoryService.claimInDatabase(inventory, seats, savedTicket.getTicketId());
+            salesRollupService.recordSale(savedTicket);
+            // The seats carry the ticket id, and reach the next flush, only once the ticket is committed
+            SeatInventory.SeatClaim booked = claim;
+            long ticketId = savedTicket.getTicketId().longValue();
+            seatInventoryService.afterCommit(() -> {
+                booked.confirm(ticketId);
+                seatInventoryService.markDirty(inventory);
+            });
+            return savedTicket;
+        } catch (RuntimeException e) {
+            claim.release();
+            throw e;
+        }
+    }
+
+    private SeatInventory.SeatClaim takeHold(String holdId, SeatInventory inventory, int[] positions) {
+        if (holdId == null) return null;
+        SeatInventory.SeatClaim held = seatHoldService.take(holdId).orElse(null);
+        if (held == null) return null;
+        if (held.getInventory() != inventory || !held.covers(positions)) {
+            held.release();
+            return null;
         }
+        return seatInventoryService.releaseOnRollback(held);
+    }
 
+    private Ticket createTicket(Bus bus, UserEntity user, LocalDate date, LocalTime time, String source, String destination, List<String> seats) {
         // Get price (price per seat, multiplied by number of seats)
-        int pricePerSeat = priceMappingRepository.getPrice(source, destination, bus.getCategory())
-                .orElseThrow(() -> new RuntimeException("Price not found for route and category"));
+        int pricePerSeat = priceMatrixService.priceOf(source, destination, bus.getCategory());
+        if (pricePerSeat == PriceMatrixService.NO_PRICE) {
+            throw new RuntimeException("Price not found for route and category");
+        }
         int totalPrice = pricePerSeat * seats.size();
 
         // Create single ticket for all seats
@@ -90,41 +135,28 @@ public class TicketService {
         ticket.setSeats(seats);
         ticket.generateTicketCode();
 
-        Ticket savedTicket = ticketRepository.save(ticket);
-
-        // Update seat availability
-        for (String seat : seats) {
-            bookedSeats.put(seat, savedTicket.getTicketId().longValue());
-        }
-        seatAvailability.setBookedSeats(bookedSeats);
-        seatAvailability.setAvailableSeats(seatAvailability.getAvailableSeats() - seats.size());
-        seatAvailabilityRepository.save(seatAvailability);
-
-        return savedTicket;
+        return ticketRepository.save(ticket);
     }
 
     @Transactional
     public void cancelTicket(Integer ticketId) {
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket not found"));
-        // Update seat availability mapping
-        SeatAvailabilityMapping seatAvailability = seatAvailabilityRepository
-                .findByBus_BusIdAndJourneyDate(ticket.getBus().getBusId(), ticket.getDate())
-                .orElseThrow(() -> new RuntimeException("Seat availability mapping not found"));
-        Map<String, Long> bookedSeats = seatAvailability.getBookedSeats();
-        for (String seat : ticket.getSeats()) {
-            bookedSeats.remove(seat);
-        }
-        seatAvailability.setBookedSeats(bookedSeats);
-        seatAvailability.setAvailableSeats(seatAvailability.getAvailableSeats() + ticket.getSeats().size());
-        seatAvailabilityRepository.save(seatAvailability);
+        // Free the seats once the delete commits, the mapping row follows on the next flush
+        SeatInventory inventory = seatInventoryService.getInventory(ticket.getBus(), ticket.getDate());
+        seatInventoryService.afterCommit(() -> {
+            inventory.releaseTicket(ticket.getSeats(), ticket.getTicketId().longValue());
+            seatInventoryService.markDirty(inventory);
+        });
         // Delete the ticket
+        seatInventoryService.releaseInDatabase(ticket.getTicketId());
+        salesRollupService.recordCancellation(ticket);
         ticketRepository.delete(ticket);
     }
 
-    public List<Ticket> getTicketsByUser(UserEntity user) {
+    public List<TicketResponse> getTicketHistory(long userId) {
         try {
-            return ticketRepository.findByUserOrderByTicketIdDesc(user);
+            return ticketRepository.findHistoryByUserId(userId);
         }catch (Exception e){
             e.printStackTrace();
             return new ArrayList<>();
@@ -140,7 +172,7 @@ public class TicketService {
     }
 
     public List<TicketSalesResponse> getTicketSalesForAdmin() {
-        List<Object[]> results = ticketRepository.getTicketSalesByRouteWithPrice();
+        List<Object[]> results = salesRollupService.salesByRouteWithPrice();
         return results.stream()
                 .map(row -> new TicketSalesResponse(
                         (String) row[0],
@@ -152,39 +184,6 @@ public class TicketService {
                 .toList();
     }
 
-    public List<Map<String, Object>> getAllTicketsForAnalytics() {
-        List<Ticket> tickets = ticketRepository.findAll();
-        return tickets.stream()
-                .map(ticket -> {
-                    Map<String, Object> ticketData = new HashMap<>();
-                    ticketData.put("ticketId", ticket.getTicketId());
-                    ticketData.put("companyName", ticket.getBus().getCompanyName());
-                    ticketData.put("price", ticket.getPrice());
-                    ticketData.put("source", ticket.getSource());
-                    ticketData.put("destination", ticket.getDestination());
-                    ticketData.put("date", ticket.getDate());
-                    ticketData.put("status", ticket.getStatus());
-                    return ticketData;
-                })
-                .toList();
-    }
-
-    public List<Map<String, Object>> getAllReviewsForAnalytics() {
-        List<Review> reviews = reviewRepository.findAll();
-        return reviews.stream()
-                .map(review -> {
-                    Map<String, Object> reviewData = new HashMap<>();
-                    reviewData.put("reviewId", review.getReviewId());
-                    reviewData.put("message", review.getMessage());
-                    reviewData.put("stars", review.getStars());
-                    reviewData.put("reviewTime", review.getReviewTime());
-                    reviewData.put("companyName", review.getBus().getCompanyName());
-                    reviewData.put("licenseNo", review.getBus().getLicenseNo());
-                    return reviewData;
-                })
-                .toList();
-    }
-
     private Double toDouble(Object o) {
         if (o instanceof Double) return (Double) o;
         if (o instanceof Long) return ((Long) o).doubleValue();
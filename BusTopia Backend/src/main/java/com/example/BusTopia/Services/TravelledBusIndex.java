@@ -0,0 +1,70 @@
+package com.example.BusTopia.Services;
+
+import com.example.BusTopia.MySqlRepositories.BusRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The buses each user holds tickets on, loaded with one DISTINCT query and kept for a short TTL,
+ * so review listings answer "can this user review the bus" without one existsTicket query per bus.
+ * Ticket writes evict the user once they commit, through TravelledBusEntityListener.
+ */
+@Service
+public class TravelledBusIndex {
+
+    private final BusRepository busRepository;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<Long, Entry> users = new ConcurrentHashMap<>();
+    // Bumped on every eviction, a load that raced with one is returned but not kept
+    private final AtomicLong evictions = new AtomicLong();
+
+    // busIds sorted ascending
+    private record Entry(int[] busIds, long expiresAtNanos) {}
+
+    public TravelledBusIndex(BusRepository busRepository,
+                             @Value("${reviews.travelled-index.ttl-seconds:300}") long ttlSeconds,
+                             @Value("${reviews.travelled-index.max-entries:10000}") int maxEntries) {
+        this.busRepository = busRepository;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.maxEntries = maxEntries;
+    }
+
+    public boolean hasTravelled(long userId, int busId) {
+        return Arrays.binarySearch(busIdsOf(userId), busId) >= 0;
+    }
+
+    // Ids of the buses the user has tickets on, ascending; callers must not modify the array
+    public int[] busIdsOf(long userId) {
+        long now = System.nanoTime();
+        Entry entry = users.get(userId);
+        if (entry != null && now - entry.expiresAtNanos() < 0) {
+            return entry.busIds();
+        }
+
+        long evictionsBefore = evictions.get();
+        List<Integer> loaded = busRepository.findTravelledBusIds(userId);
+        int[] busIds = loaded.stream().mapToInt(Integer::intValue).sorted().toArray();
+        if (users.size() >= maxEntries) {
+            users.values().removeIf(cached -> now - cached.expiresAtNanos() >= 0);
+            if (users.size() >= maxEntries) users.clear();
+        }
+        Entry loadedEntry = new Entry(busIds, now + ttlNanos);
+        users.put(userId, loadedEntry);
+        if (evictions.get() != evictionsBefore) {
+            users.remove(userId, loadedEntry);
+        }
+        return busIds;
+    }
+
+    public void evict(long userId) {
+        evictions.incrementAndGet();
+        users.remove(userId);
+    }
+}
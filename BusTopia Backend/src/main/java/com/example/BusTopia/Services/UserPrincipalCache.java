@@ -0,0 +1,70 @@
+package com.example.BusTopia.Services;
+
+import com.example.BusTopia.DatabaseEntity.UserEntity;
+import com.example.BusTopia.RedisConfiguration.RedisUserCacheInvalidation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Near cache of user principals by email, so authenticating a request is not a findByEmail every time.
+ * Entries live for a short TTL and are evicted when the profile, password or registration changes;
+ * with auth.user-cache.redis-invalidation=true evictions are broadcast to the other instances.
+ */
+@Service
+public class UserPrincipalCache {
+
+    private final ObjectProvider<RedisUserCacheInvalidation> invalidation;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> users = new ConcurrentHashMap<>();
+
+    private record Entry(UserEntity user, long expiresAtNanos) {}
+
+    public UserPrincipalCache(ObjectProvider<RedisUserCacheInvalidation> invalidation,
+                              @Value("${auth.user-cache.ttl-seconds:60}") long ttlSeconds,
+                              @Value("${auth.user-cache.max-entries:10000}") int maxEntries) {
+        this.invalidation = invalidation;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.maxEntries = maxEntries;
+    }
+
+    // The cached user, or the loader's result; unknown emails are not cached
+    public UserEntity get(String email, Function<String, UserEntity> loader) {
+        if (email == null) return null;
+        long now = System.nanoTime();
+        Entry entry = users.get(email);
+        if (entry != null && now - entry.expiresAtNanos() < 0) {
+            return entry.user();
+        }
+
+        UserEntity user = loader.apply(email);
+        if (user == null) {
+            users.remove(email);
+            return null;
+        }
+        if (users.size() >= maxEntries) {
+            users.values().removeIf(cached -> now - cached.expiresAtNanos() >= 0);
+            if (users.size() >= maxEntries) users.clear();
+        }
+        users.put(email, new Entry(user, now + ttlNanos));
+        return user;
+    }
+
+    public void evict(String email) {
+        if (email == null) return;
+        evictLocal(email);
+        RedisUserCacheInvalidation broadcaster = invalidation.getIfAvailable();
+        if (broadcaster != null) {
+            broadcaster.publish(email);
+        }
+    }
+
+    public void evictLocal(String email) {
+        users.remove(email);
+    }
+}
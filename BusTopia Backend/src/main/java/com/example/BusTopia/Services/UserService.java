@@ -26,6 +26,9 @@ public class UserService {
     @Autowired
     private AwsFileUpload awsFileUpload;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
     public UserEntity register(RegisterRequest registerRequest, MultipartFile imageFile) throws Exception{
         UserEntity userEntity = convertRegisterRequestToUser(registerRequest);
         if( imageFile != null && !imageFile.isEmpty() ){
@@ -33,6 +36,7 @@ public class UserService {
             userEntity.setImageUrl(imageUrl);
         }
         userEntity = userRepository.save(userEntity);
+        userPrincipalCache.evict(userEntity.getEmail());
         return userEntity;
     }
 
@@ -54,7 +58,9 @@ public class UserService {
             String newImageUrl = awsFileUpload.uploadFile(imageFile);
             user.setImageUrl(newImageUrl);
         }
-        return userRepository.save(user);
+        UserEntity saved = userRepository.save(user);
+        userPrincipalCache.evict(email);
+        return saved;
     }
 
     private UserEntity convertRegisterRequestToUser(RegisterRequest registerRequest) {
@@ -1,30 +1,149 @@
 package com.example.BusTopia.WebSocket;
 
 import com.example.BusTopia.AiIntegration.AssistantAgent;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
-// ChatWebSocketHandler.java
+/**
+ * Answers chat messages on virtual threads, so a slow LLM call holds neither the WebSocket I/O thread
+ * nor a container thread. Each connection has a serial queue: its messages are answered one at a time,
+ * in the order they arrived, and sends go through a ConcurrentWebSocketSessionDecorator.
+ * Clients connecting to /chat?stream=true get JSON frames, {"type":"token"} for each token of a reply the LLM
+ * writes and one {"type":"reply"} with the whole reply; other clients get the reply as one plain text frame.
+ */
 @Component
+@Slf4j
 public class ChatWebSocketHandler extends TextWebSocketHandler {
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String BUSY_REPLY = "You're sending messages faster than I can answer, please wait for my reply.";
+    private static final String ERROR_REPLY = "Sorry, something went wrong while processing your request.";
+
     private final AssistantAgent assistantAgent;
+    private final int maxQueuedPerSession;
+    private final int sendTimeLimitMillis;
+    private final int sendBufferBytes;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, ChatSession> sessions = new ConcurrentHashMap<>();
+
+    private static final class ChatSession {
+        private final WebSocketSession session;
+        private final boolean stream;
+        private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
 
-    public ChatWebSocketHandler(AssistantAgent assistantAgent) {
+        private ChatSession(WebSocketSession session, boolean stream) {
+            this.session = session;
+            this.stream = stream;
+        }
+    }
+
+    public ChatWebSocketHandler(AssistantAgent assistantAgent,
+                                @Value("${chat.max-queued-per-session:8}") int maxQueuedPerSession,
+                                @Value("${chat.send-time-limit-ms:10000}") int sendTimeLimitMillis,
+                                @Value("${chat.send-buffer-bytes:524288}") int sendBufferBytes) {
         this.assistantAgent = assistantAgent;
+        this.maxQueuedPerSession = maxQueuedPerSession;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.sendBufferBytes = sendBufferBytes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        boolean stream = session.getUri() != null && "true".equalsIgnoreCase(
+                UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst("stream"));
+        WebSocketSession concurrent = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, sendBufferBytes);
+        sessions.put(session.getId(), new ChatSession(concurrent, stream));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sessions.remove(session.getId());
     }
+
     @Override
-    public void handleTextMessage(WebSocketSession session, TextMessage message) throws  IOException {
-        String incoming = message.getPayload();
-        //System.out.println(incoming);
-        // Simulated bot logic — echo with prefix
-        String response = assistantAgent.handle(incoming);
-        System.out.println(response);
-        session.sendMessage(new TextMessage(response));
+    public void handleTextMessage(WebSocketSession session, TextMessage message) {
+        ChatSession chat = sessions.get(session.getId());
+        if (chat == null) return;
+        if (chat.queued.incrementAndGet() > maxQueuedPerSession) {
+            chat.queued.decrementAndGet();
+            send(chat, "reply", BUSY_REPLY);
+            return;
+        }
+        chat.pending.add(message.getPayload());
+        schedule(chat);
+    }
+
+    private void schedule(ChatSession chat) {
+        if (chat.draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> drain(chat));
+            } catch (RejectedExecutionException e) {
+                chat.draining.set(false);
+            }
+        }
+    }
+
+    // Only one drain runs per session at a time, so replies leave in the order the messages came in
+    private void drain(ChatSession chat) {
+        try {
+            String incoming;
+            while ((incoming = chat.pending.poll()) != null) {
+                chat.queued.decrementAndGet();
+                if (chat.session.isOpen()) answer(chat, incoming);
+            }
+        } finally {
+            chat.draining.set(false);
+            // A message queued after the last poll but before the flag was cleared
+            if (!chat.pending.isEmpty()) schedule(chat);
+        }
+    }
+
+    private void answer(ChatSession chat, String incoming) {
+        String reply;
+        try {
+            reply = chat.stream
+                    ? assistantAgent.handle(incoming, token -> send(chat, "token", token))
+                    : assistantAgent.handle(incoming);
+        } catch (RuntimeException e) {
+            log.warn("Chat message could not be answered", e);
+            reply = ERROR_REPLY;
+        }
+        send(chat, "reply", reply);
+    }
+
+    private void send(ChatSession chat, String type, String text) {
+        try {
+            String payload = chat.stream
+                    ? MAPPER.writeValueAsString(MAPPER.createObjectNode().put("type", type).put("text", text))
+                    : text;
+            chat.session.sendMessage(new TextMessage(payload));
+        } catch (IOException | RuntimeException e) {
+            // The decorator closes sessions that stop reading, their remaining replies are dropped
+            log.debug("Chat frame to session {} not sent: {}", chat.session.getId(), e.toString());
+        }
     }
 }
@@ -1,6 +1,5 @@
 package com.example.BusTopia.WebSocket;
 
-import com.example.BusTopia.AiIntegration.AssistantAgent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
@@ -17,12 +16,12 @@ public class WebSocketConfig implements WebSocketConfigurer {
     String FRONTEND_ORIGIN;
 
     @Autowired
-    private AssistantAgent assistantAgent;
+    private ChatWebSocketHandler chatWebSocketHandler;
 
 
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
-        registry.addHandler(new ChatWebSocketHandler(assistantAgent), "/chat")
+        registry.addHandler(chatWebSocketHandler, "/chat")
                 .setAllowedOrigins("https://localhost:3000","https://172.167.170.46:3000","https://app.172.167.170.46.nip.io:3000",FRONTEND_ORIGIN);
     }
 }
@@ -0,0 +1,147 @@
+package com.example.BusTopia.controller;
+
+import com.example.BusTopia.AiIntegration.AssistantAgent;
+import com.example.BusTopia.WebSocket.ChatWebSocketHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.URI;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChatWebSocketHandlerTest {
+
+    @Mock
+    private AssistantAgent assistantAgent;
+
+    @Mock
+    private WebSocketSession session;
+
+    private ChatWebSocketHandler handler;
+    private final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setup() throws Exception {
+        handler = new ChatWebSocketHandler(assistantAgent, 3, 10000, 65536);
+        when(session.getId()).thenReturn("session-1");
+        lenient().when(session.isOpen()).thenReturn(true);
+        lenient().doAnswer(invocation -> frames.add(((TextMessage) invocation.getArgument(0)).getPayload()))
+                .when(session).sendMessage(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+        handler.shutdown();
+    }
+
+    @Test
+    void handleTextMessage_ShouldReturnAtOnce_AndAnswerOneMessageAtATimeInOrder() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        when(assistantAgent.handle(anyString())).thenAnswer(invocation -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            release.await(5, TimeUnit.SECONDS);
+            active.decrementAndGet();
+            return "re: " + invocation.getArgument(0);
+        });
+        handler.afterConnectionEstablished(session);
+
+        // Act: the agent is blocked, yet each call comes straight back
+        handler.handleTextMessage(session, new TextMessage("first"));
+        handler.handleTextMessage(session, new TextMessage("second"));
+        handler.handleTextMessage(session, new TextMessage("third"));
+        assertTrue(frames.isEmpty());
+        release.countDown();
+
+        // Assert
+        assertEquals("re: first", frames.poll(5, TimeUnit.SECONDS));
+        assertEquals("re: second", frames.poll(5, TimeUnit.SECONDS));
+        assertEquals("re: third", frames.poll(5, TimeUnit.SECONDS));
+        assertEquals(1, maxActive.get());
+    }
+
+    @Test
+    void handleTextMessage_ShouldAnswerBusy_WhenTooManyMessagesWait() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(assistantAgent.handle(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "re: " + invocation.getArgument(0);
+        });
+        handler.afterConnectionEstablished(session);
+        handler.handleTextMessage(session, new TextMessage("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act: three messages fit in the queue behind the running one, the fourth does not
+        handler.handleTextMessage(session, new TextMessage("second"));
+        handler.handleTextMessage(session, new TextMessage("third"));
+        handler.handleTextMessage(session, new TextMessage("fourth"));
+        handler.handleTextMessage(session, new TextMessage("fifth"));
+        String busy = frames.poll(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        // Assert
+        assertTrue(busy.startsWith("You're sending messages faster"));
+        assertEquals("re: first", frames.poll(5, TimeUnit.SECONDS));
+        assertEquals("re: second", frames.poll(5, TimeUnit.SECONDS));
+        assertEquals("re: third", frames.poll(5, TimeUnit.SECONDS));
+        assertEquals("re: fourth", frames.poll(5, TimeUnit.SECONDS));
+        assertNull(frames.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void handleTextMessage_ShouldForwardTokens_WhenClientAskedForStreaming() throws Exception {
+        // Arrange
+        when(session.getUri()).thenReturn(URI.create("wss://localhost:8080/chat?stream=true"));
+        when(assistantAgent.handle(anyString(), any())).thenAnswer(invocation -> {
+            Consumer<String> onToken = invocation.getArgument(1);
+            onToken.accept("Hel");
+            onToken.accept("lo!");
+            return "Hello!";
+        });
+        handler.afterConnectionEstablished(session);
+
+        // Act
+        handler.handleTextMessage(session, new TextMessage("[\"user: hi\"]"));
+
+        // Assert
+        assertEquals("{\"type\":\"token\",\"text\":\"Hel\"}", frames.poll(5, TimeUnit.SECONDS));
+        assertEquals("{\"type\":\"token\",\"text\":\"lo!\"}", frames.poll(5, TimeUnit.SECONDS));
+        assertEquals("{\"type\":\"reply\",\"text\":\"Hello!\"}", frames.poll(5, TimeUnit.SECONDS));
+        verify(assistantAgent, never()).handle(anyString());
+    }
+
+    @Test
+    void handleTextMessage_ShouldSendErrorReply_WhenAgentFails() throws Exception {
+        // Arrange
+        when(assistantAgent.handle(anyString())).thenThrow(new RuntimeException("boom"));
+        handler.afterConnectionEstablished(session);
+
+        // Act
+        handler.handleTextMessage(session, new TextMessage("[\"user: hi\"]"));
+
+        // Assert
+        assertEquals("Sorry, something went wrong while processing your request.", frames.poll(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.DTOs.Admin.ReviewExportRow;
+import com.example.BusTopia.DTOs.Admin.TicketExportRow;
+import com.example.BusTopia.MySqlRepositories.ReviewRepository;
+import com.example.BusTopia.MySqlRepositories.TicketRepository;
+import com.example.BusTopia.Services.AnalyticsExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsExportServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    private AnalyticsExportService analyticsExportService;
+    private final LocalDate date = LocalDate.of(2025, 7, 7);
+
+    @BeforeEach
+    void setup() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        analyticsExportService = new AnalyticsExportService(ticketRepository, reviewRepository, objectMapper);
+        ReflectionTestUtils.setField(analyticsExportService, "pageSize", 2);
+    }
+
+    private void stubTicketPages() {
+        when(ticketRepository.findExportPageAfter(eq(0), any(Pageable.class))).thenReturn(List.of(
+                new TicketExportRow(1, "Green Line", 1200, "Dhaka", "Chittagong", date, "BOOKED"),
+                new TicketExportRow(4, "Hanif, Express", 900, "Dhaka", "Sylhet", date, "CANCELLED")));
+        when(ticketRepository.findExportPageAfter(eq(4), any(Pageable.class))).thenReturn(List.of(
+                new TicketExportRow(9, "Shohagh \"Elite\"", 1500, "Dhaka", "Khulna", date, null)));
+    }
+
+    @Test
+    void writeTickets_ShouldStreamAJsonArray_AcrossKeysetPages() throws Exception {
+        // Arrange
+        stubTicketPages();
+
+        // Act
+        String json = export(AnalyticsExportService.Format.JSON);
+
+        // Assert
+        List<?> rows = new ObjectMapper().readValue(json, List.class);
+        assertEquals(3, rows.size());
+        assertTrue(json.startsWith("[{\"ticketId\":1,\"companyName\":\"Green Line\""));
+        assertTrue(json.contains("\"date\":\"2025-07-07\""));
+        verify(ticketRepository, times(2)).findExportPageAfter(anyInt(), any(Pageable.class));
+    }
+
+    @Test
+    void writeTickets_ShouldWriteOneObjectPerLine_WhenFormatIsNdjson() throws Exception {
+        // Arrange
+        stubTicketPages();
+
+        // Act
+        String ndjson = export(AnalyticsExportService.Format.NDJSON);
+
+        // Assert
+        String[] lines = ndjson.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(9, new ObjectMapper().readTree(lines[2]).get("ticketId").asInt());
+    }
+
+    @Test
+    void writeTickets_ShouldQuoteFields_WhenFormatIsCsv() throws Exception {
+        // Arrange
+        stubTicketPages();
+
+        // Act
+        String csv = export(AnalyticsExportService.Format.CSV);
+
+        // Assert
+        String[] lines = csv.split("\r\n");
+        assertEquals("ticketId,companyName,price,source,destination,date,status", lines[0]);
+        assertEquals("4,\"Hanif, Express\",900,Dhaka,Sylhet,2025-07-07,CANCELLED", lines[2]);
+        assertEquals("9,\"Shohagh \"\"Elite\"\"\",1500,Dhaka,Khulna,2025-07-07,", lines[3]);
+    }
+
+    @Test
+    void writeReviews_ShouldPassDateRangeAndCompany_WhenFiltersAreGiven() throws Exception {
+        // Arrange
+        LocalDateTime reviewTime = LocalDateTime.of(2025, 7, 8, 10, 30);
+        when(reviewRepository.findExportPageAfter(eq(0), eq(LocalDateTime.of(2025, 7, 1, 0, 0)),
+                eq(LocalDateTime.of(2025, 8, 1, 0, 0)), eq("Green Line"), any(Pageable.class)))
+                .thenReturn(List.of(new ReviewExportRow(5, "Clean bus, on time", 5, reviewTime, "Green Line", "DHA-11")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        analyticsExportService.writeReviews(out, AnalyticsExportService.Format.CSV,
+                LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 31), "Green Line");
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("reviewId,message,stars,reviewTime,companyName,licenseNo", lines[0]);
+        assertEquals("5,\"Clean bus, on time\",5,2025-07-08T10:30,Green Line,DHA-11", lines[1]);
+        verify(reviewRepository, times(1)).findExportPageAfter(anyInt(), any(), any(), any(), any(Pageable.class));
+    }
+
+    private String export(AnalyticsExportService.Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        analyticsExportService.writeTickets(out, format);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
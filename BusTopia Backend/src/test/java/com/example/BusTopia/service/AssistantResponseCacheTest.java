@@ -0,0 +1,122 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.AiIntegration.AssistantResponseCache;
+import com.example.BusTopia.AiIntegration.FastIntentClassifier;
+import com.example.BusTopia.AiIntegration.IntentClassifier;
+import com.example.BusTopia.AiIntegration.IntentType;
+import com.example.BusTopia.AiIntegration.LLMService;
+import com.example.BusTopia.RedisConfiguration.RedisAssistantResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssistantResponseCacheTest {
+
+    @Mock
+    private ObjectProvider<RedisAssistantResponseCache> redisTier;
+
+    @Mock
+    private RedisAssistantResponseCache redis;
+
+    @Mock
+    private LLMService llmService;
+
+    @Mock
+    private FastIntentClassifier fastClassifier;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AssistantResponseCache cache;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AssistantResponseCache(redisTier, meterRegistry, 3600, 100);
+    }
+
+    @Test
+    void get_ShouldSkipTheLoader_WhenQuestionNormalizesToACachedOne() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        String first = cache.get("COST_INQUIRY", "user: Dhaka to Bogura price?", () -> { calls.incrementAndGet(); return "dhaka:bogura"; });
+        String second = cache.get("COST_INQUIRY", "user:  dhaka TO bogura, price", () -> { calls.incrementAndGet(); return "other"; });
+
+        // Assert
+        assertEquals("dhaka:bogura", first);
+        assertEquals("dhaka:bogura", second);
+        assertEquals(1, calls.get());
+        assertEquals(0.5, cache.hitRatio());
+        assertEquals(0.5, meterRegistry.get("assistant.cache.hit_ratio").gauge().value());
+    }
+
+    @Test
+    void get_ShouldKeepKindsApart_WhenTextIsTheSame() {
+        // Act
+        cache.get("COST_INQUIRY", "user: Dhaka to Bogura", () -> "dhaka:bogura");
+        String route = cache.get("FIND_ROUTE", "user: Dhaka to Bogura", () -> "dhaka:bogura:unclear");
+
+        // Assert
+        assertEquals("dhaka:bogura:unclear", route);
+    }
+
+    @Test
+    void get_ShouldNotKeepUnknown_WhenTheLlmCallFailed() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        cache.get("intent", "user: hi", () -> { calls.incrementAndGet(); return LLMService.UNKNOWN; });
+        String retried = cache.get("intent", "user: hi", () -> { calls.incrementAndGet(); return "SMALL_TALK"; });
+
+        // Assert
+        assertEquals("SMALL_TALK", retried);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void get_ShouldUseTheRedisTier_WhenTheLocalMapMisses() {
+        // Arrange
+        when(redisTier.getIfAvailable()).thenReturn(redis);
+        when(redis.get(anyString())).thenReturn("Green Line");
+
+        // Act
+        String busName = cache.get("BUS_INQUIRY", "user: is Green Line here?", () -> fail("LLM must not be called"));
+        String again = cache.get("BUS_INQUIRY", "user: is Green Line here?", () -> fail("LLM must not be called"));
+
+        // Assert
+        assertEquals("Green Line", busName);
+        assertEquals("Green Line", again);
+        verify(redis, times(1)).get(anyString());
+        verify(redis, never()).put(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void classify_ShouldNotCallTheLlm_WhenTheConversationWasClassifiedBefore() {
+        // Arrange
+        IntentClassifier classifier = new IntentClassifier(llmService, cache, fastClassifier, meterRegistry, false);
+        when(fastClassifier.classify(anyString())).thenReturn(Optional.empty());
+        when(llmService.callOpenAI(anyString())).thenReturn("COST_INQUIRY");
+
+        // Act
+        IntentType first = classifier.classify("[\"user: How much is it?\"]", "user: How much is it?").intent();
+        IntentType second = classifier.classify("[\"user: how much is it\"]", "user: how much is it").intent();
+
+        // Assert
+        assertEquals(IntentType.COST_INQUIRY, first);
+        assertEquals(IntentType.COST_INQUIRY, second);
+        verify(llmService, times(1)).callOpenAI(anyString());
+    }
+}
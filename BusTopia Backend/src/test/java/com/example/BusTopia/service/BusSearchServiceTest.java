@@ -0,0 +1,170 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.DTOs.BuyTicket.BusSearchRequest;
+import com.example.BusTopia.DTOs.BuyTicket.BusSearchResponse;
+import com.example.BusTopia.DatabaseEntity.*;
+import com.example.BusTopia.Inventory.SeatInventoryService;
+import com.example.BusTopia.MySqlRepositories.BookedSeatRepository;
+import com.example.BusTopia.MySqlRepositories.PriceMappingRepository;
+import com.example.BusTopia.MySqlRepositories.SeatAvailabilityMappingRepository;
+import com.example.BusTopia.MySqlRepositories.TicketRepository;
+import com.example.BusTopia.MySqlRepositories.TimeMappingRepository;
+import com.example.BusTopia.Services.BusSearchService;
+import com.example.BusTopia.Services.PriceMatrixService;
+import com.example.BusTopia.Services.RouteService;
+import com.example.BusTopia.Services.RouteTimetableIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BusSearchServiceTest {
+
+    @Mock private RouteService routeService;
+    @Mock private PriceMappingRepository priceMappingRepository;
+    @Mock private TimeMappingRepository timeMappingRepository;
+    @Mock private SeatAvailabilityMappingRepository seatAvailabilityRepository;
+    @Mock private TicketRepository ticketRepository;
+    @Mock private RouteTimetableIndex routeTimetableIndex;
+
+    private BusSearchService busSearchService;
+    private LocalDate journeyDate;
+    private Route route;
+
+    @BeforeEach
+    void setup() {
+        SeatInventoryService seatInventoryService = new SeatInventoryService(seatAvailabilityRepository, ticketRepository, mock(BookedSeatRepository.class));
+        busSearchService = new BusSearchService(routeService, new PriceMatrixService(priceMappingRepository),
+                timeMappingRepository, seatAvailabilityRepository, seatInventoryService, routeTimetableIndex);
+
+        journeyDate = LocalDate.of(2025, 7, 7);
+        LocalDateTime now = LocalDateTime.of(journeyDate.minusDays(1), LocalTime.of(9, 0));
+        busSearchService.setClock(Clock.fixed(now.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+
+        route = new Route();
+        route.setRouteId(1);
+        route.setStops(List.of("Dhaka", "Comilla", "Chittagong"));
+    }
+
+    @Test
+    void search_ShouldReturnOneACBusWithinBudget_UsingOneQueryPerKind() {
+        // Arrange
+        BusSearchRequest request = new BusSearchRequest("Comilla", "Chittagong", journeyDate, "AC", 1000, 1300);
+        List<Bus> buses = new ArrayList<>();
+        for (int i = 1; i <= 40; i++) {
+            buses.add(buildBus(i, i == 1 ? "AC" : "Non-AC"));
+        }
+
+        when(routeService.getRoutesContainingSourceAndDestination("Comilla", "Chittagong")).thenReturn(List.of(route));
+        when(routeService.getBusesOnRoutes(List.of(route))).thenReturn(buses);
+        when(priceMappingRepository.findByStopsBidirectional("Comilla", "Chittagong"))
+                .thenReturn(List.of(buildPrice("AC", 1200), buildPrice("Non-AC", 700)));
+        when(timeMappingRepository.findAllAmongStops(anyCollection()))
+                .thenReturn(List.of(buildTime("Dhaka", "Comilla", 120), buildTime("Comilla", "Chittagong", 180)));
+        when(seatAvailabilityRepository.findAvailableSeatsByBusIdsAndJourneyDate(anyCollection(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{1, 30}));
+
+        // Act
+        List<BusSearchResponse> result = busSearchService.search(request);
+
+        // Assert
+        assertEquals(1, result.size());
+        BusSearchResponse bus = result.get(0);
+        assertEquals(1, bus.getBusId());
+        assertEquals("AC", bus.getCategory());
+        assertEquals(LocalTime.of(10, 0), bus.getDepartureTime());
+        assertEquals(1200, bus.getPrice());
+        assertEquals(30, bus.getAvailableSeats());
+
+        // One query each, no matter how many buses matched
+        verify(priceMappingRepository, times(1)).findByStopsBidirectional("Comilla", "Chittagong");
+        verify(timeMappingRepository, times(1)).findAllAmongStops(anyCollection());
+        verify(seatAvailabilityRepository, times(1)).findAvailableSeatsByBusIdsAndJourneyDate(anyCollection(), any());
+        verify(priceMappingRepository, never()).getPrice(any(), any(), any());
+        verify(timeMappingRepository, never()).findDurationBetweenStops(any(), any());
+    }
+
+    @Test
+    void search_ShouldReportWholeLayoutFree_WhenNoSeatMappingExists() {
+        BusSearchRequest request = new BusSearchRequest("Dhaka", "Chittagong", journeyDate, "", 0, 2000);
+
+        when(routeService.getRoutesContainingSourceAndDestination("Dhaka", "Chittagong")).thenReturn(List.of(route));
+        when(routeService.getBusesOnRoutes(List.of(route))).thenReturn(List.of(buildBus(1, "AC")));
+        when(priceMappingRepository.findByStopsBidirectional("Dhaka", "Chittagong"))
+                .thenReturn(List.of(buildPrice("AC", 1500)));
+        when(timeMappingRepository.findAllAmongStops(anyCollection())).thenReturn(List.of());
+        when(seatAvailabilityRepository.findAvailableSeatsByBusIdsAndJourneyDate(anyCollection(), any()))
+                .thenReturn(List.of());
+
+        List<BusSearchResponse> result = busSearchService.search(request);
+
+        assertEquals(1, result.size());
+        assertEquals(4, result.get(0).getAvailableSeats());
+        assertEquals(LocalTime.of(8, 0), result.get(0).getDepartureTime());
+    }
+
+    @Test
+    void search_ShouldExcludeBusesWithInvalidData() {
+        BusSearchRequest request = new BusSearchRequest("Comilla", "Chittagong", journeyDate, "", 0, 2000);
+        Bus invalidBus = buildBus(2, "AC");
+        invalidBus.setStartTime(null);
+
+        when(routeService.getRoutesContainingSourceAndDestination("Comilla", "Chittagong")).thenReturn(List.of(route));
+        when(routeService.getBusesOnRoutes(List.of(route))).thenReturn(List.of(buildBus(1, "AC"), invalidBus));
+        when(priceMappingRepository.findByStopsBidirectional("Comilla", "Chittagong"))
+                .thenReturn(List.of(buildPrice("AC", 1500)));
+        // Only the reverse direction is mapped, which getStartTimeForAStop also accepts
+        when(timeMappingRepository.findAllAmongStops(anyCollection()))
+                .thenReturn(List.of(buildTime("Comilla", "Dhaka", 90)));
+        when(seatAvailabilityRepository.findAvailableSeatsByBusIdsAndJourneyDate(anyCollection(), any()))
+                .thenReturn(List.of());
+
+        List<BusSearchResponse> result = busSearchService.search(request);
+
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).getBusId());
+        assertEquals(LocalTime.of(9, 30), result.get(0).getDepartureTime());
+    }
+
+    private Bus buildBus(int busId, String category) {
+        SeatLayout layout = new SeatLayout();
+        layout.setLayoutId(1);
+        layout.setLayout(List.of(List.of("A1", "A2", "", "A3", "A4")));
+
+        Bus bus = new Bus();
+        bus.setBusId(busId);
+        bus.setCompanyName("Green Line");
+        bus.setLicenseNo("GL-" + busId);
+        bus.setCategory(category);
+        bus.setStartTime(LocalTime.of(8, 0));
+        bus.setRoute(route);
+        bus.setSeatLayout(layout);
+        return bus;
+    }
+
+    private PriceMapping buildPrice(String category, double price) {
+        PriceMapping mapping = new PriceMapping();
+        mapping.setCategory(category);
+        mapping.setPrice(price);
+        return mapping;
+    }
+
+    private TimeMapping buildTime(String stop1, String stop2, int duration) {
+        TimeMapping mapping = new TimeMapping();
+        mapping.setStop1(stop1);
+        mapping.setStop2(stop2);
+        mapping.setDuration(duration);
+        return mapping;
+    }
+}
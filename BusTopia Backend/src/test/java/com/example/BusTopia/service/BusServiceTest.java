@@ -6,6 +6,7 @@ import com.example.BusTopia.MySqlRepositories.BusRepository;
 import com.example.BusTopia.MySqlRepositories.TimeMappingRepository;
 import com.example.BusTopia.Services.BusService;
 import com.example.BusTopia.Services.RouteService;
+import com.example.BusTopia.Services.RouteTimetableIndex;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -33,6 +34,9 @@ class BusServiceTest {
     @Mock
     private TimeMappingRepository timeMappingRepository;
 
+    @Mock
+    private RouteTimetableIndex routeTimetableIndex;
+
     @InjectMocks
     private BusService busService;
 
@@ -0,0 +1,75 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.DTOs.RerouteInfo;
+import com.example.BusTopia.DatabaseEntity.DemandAdjusterConfig;
+import com.example.BusTopia.MySqlRepositories.DemandAdjusterConfigRepository;
+import com.example.BusTopia.Schedulers.DemandBasedFrequencyScheduler;
+import com.example.BusTopia.Services.RouteStopIndex;
+import com.example.BusTopia.Services.SalesRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DemandBasedFrequencySchedulerTest {
+
+    @Mock private SalesRollupService salesRollupService;
+    @Mock private DemandAdjusterConfigRepository configRepo;
+    @Mock private RouteStopIndex routeStopIndex;
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private DemandBasedFrequencyScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        DemandAdjusterConfig config = new DemandAdjusterConfig();
+        config.setRerouteCount(2);
+        config.setUnderperformThreshold(10);
+        config.setHighDemandThreshold(100);
+        when(configRepo.findById(1L)).thenReturn(Optional.of(config));
+
+        // Route 1 is busy, route 2 is quiet; buses 3 and 4 barely sell and bus 5 has no route
+        when(salesRollupService.busDemandAfter(any())).thenReturn(List.of(
+                new Object[]{1, 1, "Green Line", 80L},
+                new Object[]{2, 1, "Green Line", 60L},
+                new Object[]{3, 2, "Hanif", 5L},
+                new Object[]{4, 2, "Hanif", 2L},
+                new Object[]{5, null, "Shyamoli", 0L}));
+    }
+
+    @Test
+    void adjustBusFrequencies_ShouldMoveLeastBookedBusesToBusyRoutes() {
+        // Act
+        List<RerouteInfo> plan = scheduler.adjustBusFrequencies(false);
+
+        // Assert: least booked first, limited to the reroute count
+        assertEquals(List.of(
+                new RerouteInfo(5, "Shyamoli", -1, 1),
+                new RerouteInfo(4, "Hanif", 2, 1)), plan);
+        verify(jdbcTemplate).batchUpdate(eq("UPDATE bus SET route_id = ? WHERE bus_id = ?"), eq(plan), anyInt(), any());
+        verify(routeStopIndex).onBusesRerouted(Map.of(5, 1, 4, 1));
+    }
+
+    @Test
+    void adjustBusFrequencies_ShouldOnlyReturnThePlan_WhenDryRun() {
+        // Act
+        List<RerouteInfo> plan = scheduler.adjustBusFrequencies(true);
+
+        // Assert
+        assertEquals(2, plan.size());
+        verifyNoInteractions(jdbcTemplate, routeStopIndex);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.AiIntegration.*;
+import com.example.BusTopia.MySqlRepositories.BusRepository;
+import com.example.BusTopia.MySqlRepositories.PriceMappingRepository;
+import com.example.BusTopia.RedisConfiguration.RedisAssistantResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FastIntentClassifierTest {
+
+    @Mock
+    private PriceMappingRepository priceMappingRepository;
+
+    @Mock
+    private BusRepository busRepository;
+
+    @Mock
+    private LLMService llmService;
+
+    @Mock
+    private ObjectProvider<RedisAssistantResponseCache> redisTier;
+
+    private FastIntentClassifier fastClassifier;
+
+    @BeforeEach
+    void setup() {
+        when(priceMappingRepository.findAllDistinctStops()).thenReturn(List.of("Dhaka", "Bogura", "Cox's Bazar", "Sylhet"));
+        when(busRepository.findDistinctCompanyNames()).thenReturn(List.of("Green Line Paribahan", "Shyamoli Paribahan", "Hanif", "Desh Travels"));
+        fastClassifier = new FastIntentClassifier(priceMappingRepository, busRepository);
+        fastClassifier.refresh();
+    }
+
+    @Test
+    void classify_ShouldResolveGreetingsCancellationsAndBooking() {
+        // Act & Assert
+        assertEquals(IntentType.SMALL_TALK, fastClassifier.classify("user: Hello!").orElseThrow().intent());
+        assertEquals(IntentType.SMALL_TALK, fastClassifier.classify("user: thanks a lot").orElseThrow().intent());
+        assertEquals(IntentType.CANCEL_TICKET, fastClassifier.classify("user: Can I cancel the ticket later?").orElseThrow().intent());
+        assertEquals(IntentType.BOOK_TICKET, fastClassifier.classify("user: how/where I book a ticket here?").orElseThrow().intent());
+    }
+
+    @Test
+    void classify_ShouldResolvePriceQuestionWithBothStops() {
+        // Act
+        IntentResult dashed = fastClassifier.classify("user: what are Dhaka-Bogura ticket prices?").orElseThrow();
+        IntentResult reversed = fastClassifier.classify("user: fare to cox's bazar from dhaka").orElseThrow();
+
+        // Assert
+        assertEquals(new IntentResult(IntentType.COST_INQUIRY, "Dhaka", "Bogura", null, null, null, true), dashed);
+        assertEquals(new IntentResult(IntentType.COST_INQUIRY, "Dhaka", "Cox's Bazar", null, null, null, true), reversed);
+    }
+
+    @Test
+    void classify_ShouldResolveCompanyInquiry_WhenNameIsWrittenTogether() {
+        // Act
+        IntentResult result = fastClassifier.classify("user: Are GreenLine buses here?").orElseThrow();
+
+        // Assert
+        assertEquals(IntentType.BUS_INQUIRY, result.intent());
+        assertEquals("Green Line Paribahan", result.busName());
+    }
+
+    @Test
+    void classify_ShouldNotFindCompany_WhenShortNameIsPartOfAnotherWord() {
+        // Act
+        IntentResult named = fastClassifier.classify("user: Desh buses?").orElseThrow();
+
+        // Assert: "bangladesh" contains "desh", the short name of Desh Travels
+        assertEquals("Desh Travels", named.busName());
+        assertTrue(fastClassifier.classify("user: is there any bus in bangladesh").isEmpty());
+    }
+
+    @Test
+    void classify_ShouldLeaveAmbiguousMessagesToTheLlm() {
+        // Act & Assert
+        assertTrue(fastClassifier.classify("user: How much Bogura tickets cost?").isEmpty());
+        assertTrue(fastClassifier.classify("user: Bogura to Dhaka").isEmpty());
+        assertTrue(fastClassifier.classify("user: I want to go from Khulna to Rajshahi on Monday").isEmpty());
+        assertTrue(fastClassifier.classify("user: hi, what buses go to Sylhet tonight?").isEmpty());
+        assertTrue(fastClassifier.classify("user: Hanif reviews?").isEmpty());
+    }
+
+    @Test
+    void classify_ShouldCountTurnsServedLocally() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AssistantResponseCache cache = new AssistantResponseCache(redisTier, meterRegistry, 3600, 100);
+        IntentClassifier classifier = new IntentClassifier(llmService, cache, fastClassifier, meterRegistry, false);
+        when(llmService.callOpenAI(anyString())).thenReturn("FIND_ROUTE");
+
+        // Act
+        classifier.classify("[\"user: hello\"]", "user: hello");
+        classifier.classify("[\"user: Dhaka to Bogura price\"]", "user: Dhaka to Bogura price");
+        classifier.classify("[\"user: Bogura to Dhaka\"]", "user: Bogura to Dhaka");
+        IntentType routed = classifier.classify("[\"user: buses to Sylhet tonight\"]", "user: buses to Sylhet tonight").intent();
+
+        // Assert
+        assertEquals(IntentType.FIND_ROUTE, routed);
+        assertEquals(0.5, classifier.localRatio());
+        assertEquals(0.5, meterRegistry.get("assistant.intent.local_ratio").gauge().value());
+        verify(llmService, times(2)).callOpenAI(anyString());
+    }
+}
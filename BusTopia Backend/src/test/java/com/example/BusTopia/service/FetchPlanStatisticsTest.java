@@ -0,0 +1,212 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.DTOs.BuyTicket.TicketResponse;
+import com.example.BusTopia.DTOs.Review.ReviewFeedRow;
+import com.example.BusTopia.DatabaseEntity.*;
+import com.example.BusTopia.MySqlRepositories.BusRepository;
+import com.example.BusTopia.MySqlRepositories.ReviewRepository;
+import com.example.BusTopia.MySqlRepositories.TicketRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Counts the statements and entities each read path costs on H2, so a fetch plan that regresses fails the build
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class FetchPlanStatisticsTest {
+
+    private static final int BUSES = 3;
+    private static final int TICKETS = 6;
+    private static final int REVIEWS = 5;
+
+    @Autowired private TicketRepository ticketRepository;
+    @Autowired private BusRepository busRepository;
+    @Autowired private ReviewRepository reviewRepository;
+    @PersistenceContext private EntityManager entityManager;
+
+    private Statistics statistics;
+    private UserEntity user;
+    private List<Bus> buses;
+    private Ticket firstTicket;
+
+    @BeforeEach
+    void setup() {
+        SeatLayout layout = new SeatLayout();
+        layout.setName("AC Standard 2+2");
+        layout.setCategory("AC");
+        layout.setLayout(List.of(List.of("A1", "A2", "", "A3", "A4")));
+        entityManager.persist(layout);
+
+        Route route = new Route();
+        route.setStops(List.of("Dhaka", "Comilla", "Chittagong"));
+        entityManager.persist(route);
+
+        buses = new ArrayList<>();
+        for (int i = 0; i < BUSES; i++) {
+            Bus bus = new Bus();
+            bus.setCompanyName("Green Line Paribahan");
+            bus.setLicenseNo("DHA-" + i);
+            bus.setCategory("AC");
+            bus.setStartTime(LocalTime.of(8 + i, 0));
+            bus.setRoute(route);
+            bus.setSeatLayout(layout);
+            entityManager.persist(bus);
+            buses.add(bus);
+        }
+
+        user = new UserEntity();
+        user.setEmail("traveller@example.com");
+        user.setName("Traveller");
+        user.setPassword("hash");
+        user.setRole("ROLE_USER");
+        entityManager.persist(user);
+
+        for (int i = 0; i < TICKETS; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setBus(buses.get(i % BUSES));
+            ticket.setUser(user);
+            ticket.setDate(LocalDate.of(2030, 1, 1 + i));
+            ticket.setScheduledTime(LocalTime.of(8, 0));
+            ticket.setSource("Dhaka");
+            ticket.setDestination("Chittagong");
+            ticket.setSeats(List.of("A1"));
+            ticket.setPrice(1200);
+            ticket.setStatus("BOOKED");
+            entityManager.persist(ticket);
+            if (firstTicket == null) firstTicket = ticket;
+        }
+
+        for (int i = 0; i < REVIEWS; i++) {
+            Review review = new Review();
+            review.setBus(buses.get(0));
+            review.setUser(user);
+            review.setMessage("Review " + i);
+            review.setStars(1 + i % 5);
+            entityManager.persist(review);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void ticketHistory_ShouldTakeOneSelect_AndLoadNoEntities() {
+        // Act
+        List<TicketResponse> history = ticketRepository.findHistoryByUserId(user.getId());
+
+        // Assert
+        assertEquals(TICKETS, history.size());
+        assertEquals("Green Line Paribahan", history.get(0).companyName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void ticketById_ShouldLoadOnlyTheTicket() {
+        // Act
+        Ticket ticket = ticketRepository.findById(firstTicket.getTicketId()).orElseThrow();
+
+        // Assert
+        assertFalse(Hibernate.isInitialized(ticket.getBus()));
+        assertFalse(Hibernate.isInitialized(ticket.getUser()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void ticketVerification_ShouldFetchBusAndUserInTheSameSelect() {
+        // Arrange
+        String ticketCode = ticketRepository.findById(firstTicket.getTicketId()).orElseThrow().getTicketCode();
+        entityManager.clear();
+        statistics.clear();
+
+        // Act
+        Ticket ticket = ticketRepository.findTicketByCodeAndCompany(ticketCode, "Green Line Paribahan");
+
+        // Assert
+        assertEquals("Traveller", ticket.getUser().getName());
+        assertEquals("AC", ticket.getBus().getCategory());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(3, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void reviewFeed_ShouldTakeOneSelect_AndLoadNoEntities() {
+        // Act
+        List<ReviewFeedRow> page = reviewRepository.findFeedPageBefore(buses.get(0).getBusId(),
+                LocalDateTime.of(9999, 1, 1, 0, 0), Integer.MAX_VALUE, PageRequest.of(0, 20));
+
+        // Assert
+        assertEquals(REVIEWS, page.size());
+        assertEquals("Traveller", page.get(0).userName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void companyBuses_ShouldFetchRouteAndLayoutInTheSameSelect() {
+        // Act
+        List<Bus> companyBuses = busRepository.findByCompanyNameIgnoreCase("green line paribahan");
+
+        // Assert
+        assertEquals(BUSES, companyBuses.size());
+        companyBuses.forEach(bus -> {
+            assertTrue(Hibernate.isInitialized(bus.getRoute()));
+            assertTrue(Hibernate.isInitialized(bus.getSeatLayout()));
+        });
+        assertEquals(1, statistics.getPrepareStatementCount());
+        // The buses plus their one shared route and layout
+        assertEquals(BUSES + 2, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void busInfo_ShouldFetchRouteAndLayoutInTheSameSelect() {
+        // Act
+        Bus bus = busRepository.findWithRouteAndSeatLayoutByBusId(buses.get(1).getBusId()).orElseThrow();
+
+        // Assert
+        assertEquals(3, bus.getRoute().getStops().size());
+        assertEquals("AC Standard 2+2", bus.getSeatLayout().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(3, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void busesById_ShouldFetchRoutesButLeaveLayoutsLazy() {
+        // Act
+        List<Bus> found = busRepository.findByBusIdIn(buses.stream().map(Bus::getBusId).toList());
+
+        // Assert
+        assertEquals(BUSES, found.size());
+        found.forEach(bus -> {
+            assertTrue(Hibernate.isInitialized(bus.getRoute()));
+            assertFalse(Hibernate.isInitialized(bus.getSeatLayout()));
+        });
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(BUSES + 1, statistics.getEntityLoadCount());
+    }
+}
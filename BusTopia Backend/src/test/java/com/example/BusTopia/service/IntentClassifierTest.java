@@ -0,0 +1,120 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.AiIntegration.*;
+import com.example.BusTopia.RedisConfiguration.RedisAssistantResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IntentClassifierTest {
+
+    private static final String CONVERSATION = "[\"user: What's the cost of Dhaka tickets?\",\"bot: Tell me your source & destination\",\"user: Bogura to Dhaka\"]";
+    private static final String LAST = "user: Bogura to Dhaka";
+
+    @Mock
+    private LLMService llmService;
+
+    @Mock
+    private FastIntentClassifier fastClassifier;
+
+    @Mock
+    private ObjectProvider<RedisAssistantResponseCache> redisTier;
+
+    private SimpleMeterRegistry meterRegistry;
+    private IntentClassifier classifier;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        AssistantResponseCache cache = new AssistantResponseCache(redisTier, meterRegistry, 3600, 100);
+        classifier = new IntentClassifier(llmService, cache, fastClassifier, meterRegistry, true);
+        when(fastClassifier.classify(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void classify_ShouldReturnIntentAndSlots_FromOneCall() {
+        // Arrange
+        when(llmService.callJson(anyString())).thenReturn(
+                "{\"intent\":\"cost_inquiry\",\"source\":\"bogura\",\"destination\":\"dhaka\",\"time\":\"unclear\",\"busName\":null,\"reply\":null}");
+
+        // Act
+        IntentResult result = classifier.classify(CONVERSATION, LAST);
+
+        // Assert
+        assertEquals(new IntentResult(IntentType.COST_INQUIRY, "bogura", "dhaka", null, null, null, true), result);
+        verify(llmService, times(1)).callJson(anyString());
+        verify(llmService, never()).callOpenAI(anyString());
+    }
+
+    @Test
+    void classify_ShouldRepairJson_WhenModelWrapsItInProse() {
+        // Arrange
+        when(llmService.callJson(anyString())).thenReturn(
+                "Sure! ```json\n{\"intent\":\"SMALL_TALK\",\"reply\":\"Hello! How can I help you travel today?\"}\n```");
+
+        // Act
+        IntentResult result = classifier.classify("[\"user: hello my friend\"]", "user: hello my friend");
+
+        // Assert
+        assertEquals(IntentType.SMALL_TALK, result.intent());
+        assertEquals("Hello! How can I help you travel today?", result.reply());
+        assertTrue(result.extracted());
+    }
+
+    @Test
+    void classify_ShouldFallBackToClassificationPrompt_WhenJsonBreaksTheSchema() {
+        // Arrange
+        when(llmService.callJson(anyString())).thenReturn("{\"intent\":\"BUY_SNACKS\",\"source\":42}");
+        when(llmService.callOpenAI(anyString())).thenReturn("COST_INQUIRY");
+
+        // Act
+        IntentResult first = classifier.classify(CONVERSATION, LAST);
+        IntentResult second = classifier.classify(CONVERSATION, LAST);
+
+        // Assert
+        assertEquals(IntentResult.of(IntentType.COST_INQUIRY), first);
+        assertFalse(first.extracted());
+        assertEquals(first, second);
+        // The invalid answer was not cached, the fallback answer was
+        verify(llmService, times(2)).callJson(anyString());
+        verify(llmService, times(1)).callOpenAI(anyString());
+        assertEquals(2.0, meterRegistry.get("assistant.intent.structured_fallbacks").counter().count());
+    }
+
+    @Test
+    void classify_ShouldReturnUnknownWithoutFallback_WhenTheCallFails() {
+        // Arrange
+        when(llmService.callJson(anyString())).thenReturn(LLMService.UNKNOWN);
+
+        // Act
+        IntentResult result = classifier.classify(CONVERSATION, LAST);
+
+        // Assert
+        assertEquals(IntentType.UNKNOWN, result.intent());
+        verify(llmService, never()).callOpenAI(anyString());
+    }
+
+    @Test
+    void classify_ShouldDropBothStops_WhenSourceEqualsDestination() {
+        // Arrange
+        when(llmService.callJson(anyString())).thenReturn(
+                "{\"intent\":\"FIND_ROUTE\",\"source\":\"Dhaka\",\"destination\":\"dhaka\",\"time\":\"Night\"}");
+
+        // Act
+        IntentResult result = classifier.classify("[\"user: buses around dhaka at night\"]", "user: buses around dhaka at night");
+
+        // Assert
+        assertEquals(new IntentResult(IntentType.FIND_ROUTE, null, null, "night", null, null, true), result);
+    }
+}
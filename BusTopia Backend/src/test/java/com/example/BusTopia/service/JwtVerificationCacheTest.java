@@ -0,0 +1,103 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.DatabaseEntity.UserEntity;
+import com.example.BusTopia.SecurityConfiguration.JwtUtility;
+import com.example.BusTopia.SecurityConfiguration.JwtVerificationCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtVerificationCacheTest {
+
+    private JwtUtility jwtUtility;
+    private JwtVerificationCache jwtVerificationCache;
+    private UserEntity user;
+
+    @BeforeEach
+    void setup() {
+        byte[] key = new byte[32];
+        new Random(1).nextBytes(key);
+        jwtUtility = spy(new JwtUtility());
+        ReflectionTestUtils.setField(jwtUtility, "SECRET_KEY", Base64.getEncoder().encodeToString(key));
+        ReflectionTestUtils.setField(jwtUtility, "expirationMs", 60_000L);
+        jwtVerificationCache = new JwtVerificationCache(jwtUtility, 2);
+
+        user = new UserEntity();
+        user.setEmail("user@example.com");
+        user.setRole("ROLE_USER");
+    }
+
+    @Test
+    void verify_ShouldParseOnce_WhenTheSameTokenIsSeenAgain() {
+        // Arrange
+        String token = jwtUtility.generateToken(user);
+
+        // Act
+        Optional<JwtUtility.VerifiedToken> first = jwtVerificationCache.verify(token);
+        Optional<JwtUtility.VerifiedToken> second = jwtVerificationCache.verify(token);
+
+        // Assert
+        assertTrue(first.isPresent());
+        assertEquals("user@example.com", first.get().subject());
+        assertEquals(List.of("ROLE_USER"), first.get().authorities());
+        assertSame(first.get(), second.get());
+        verify(jwtUtility, times(1)).verify(token);
+    }
+
+    @Test
+    void verify_ShouldKeyEntriesByTokenDigest_WhenCachingAToken() throws Exception {
+        // Arrange
+        String token = jwtUtility.generateToken(user);
+        String digest = HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+
+        // Act
+        jwtVerificationCache.verify(token);
+
+        // Assert
+        Map<?, ?> verified = (Map<?, ?>) ReflectionTestUtils.getField(jwtVerificationCache, "verified");
+        assertEquals(Set.of(digest), verified.keySet());
+    }
+
+    @Test
+    void verify_ShouldReturnEmpty_WhenTokenIsTamperedOrExpired() {
+        // Arrange
+        String token = jwtUtility.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        ReflectionTestUtils.setField(jwtUtility, "expirationMs", -1_000L);
+        String expired = jwtUtility.generateToken(user);
+
+        // Act & Assert
+        assertTrue(jwtVerificationCache.verify(tampered).isEmpty());
+        assertTrue(jwtVerificationCache.verify(expired).isEmpty());
+        assertTrue(jwtVerificationCache.verify("not-a-jwt").isEmpty());
+        assertEquals(0, jwtVerificationCache.size());
+    }
+
+    @Test
+    void verify_ShouldStayWithinMaxEntries() {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            UserEntity other = new UserEntity();
+            other.setEmail("user" + i + "@example.com");
+            other.setRole("ROLE_USER");
+            assertTrue(jwtVerificationCache.verify(jwtUtility.generateToken(other)).isPresent());
+        }
+
+        // Assert
+        assertTrue(jwtVerificationCache.size() <= 2);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.AiIntegration.LLMService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the client against a local stub of the chat completions endpoint
+class LLMServiceTest {
+
+    private static final String REPLY = "{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\" FIND_ROUTE \"}}]}";
+
+    private static final String STREAMED_REPLY = """
+            data: {"choices":[{"delta":{"role":"assistant"}}]}
+
+            data: {"choices":[{"delta":{"content":"Hel"}}]}
+
+            data: {"choices":[{"delta":{"content":"lo!"}}]}
+
+            data: [DONE]
+
+            """;
+
+    private HttpServer server;
+    private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private SimpleMeterRegistry meterRegistry;
+    private LLMService llmService;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/chat", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+        llmService = newService(2, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        llmService.shutdown();
+        release.countDown();
+        server.stop(0);
+    }
+
+    private LLMService newService(int maxInFlight, long callTimeoutMillis) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/chat";
+        return new LLMService("test-key", url, "test-model", 500, callTimeoutMillis, callTimeoutMillis,
+                maxInFlight, 2, 10, 50, meterRegistry);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        boolean stream = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).contains("\"stream\":true");
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Integer status = statuses.poll();
+        int code = status != null ? status : 200;
+        byte[] body = (code != 200 ? "{\"error\":\"busy\"}" : stream ? STREAMED_REPLY : REPLY).getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    @Test
+    void completeAsync_ShouldReturnTrimmedReply_WhenApiAnswers() {
+        // Act
+        String reply = llmService.completeAsync("hello").join();
+
+        // Assert
+        assertEquals("FIND_ROUTE", reply);
+        assertEquals(1, requests.get());
+        assertEquals(1, meterRegistry.get("llm.call").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void completeAsync_ShouldRetry_WhenApiIsRateLimitedOrUnavailable() {
+        // Arrange
+        statuses.add(429);
+        statuses.add(503);
+
+        // Act
+        String reply = llmService.completeAsync("hello").join();
+
+        // Assert
+        assertEquals("FIND_ROUTE", reply);
+        assertEquals(3, requests.get());
+        assertEquals(2.0, meterRegistry.get("llm.call.retries").counter().count());
+    }
+
+    @Test
+    void completeAsync_ShouldReturnUnknown_WhenRetriesRunOut() {
+        // Arrange
+        statuses.addAll(List.of(500, 502, 503));
+
+        // Act
+        String reply = llmService.completeAsync("hello").join();
+
+        // Assert
+        assertEquals(LLMService.UNKNOWN, reply);
+        assertEquals(3, requests.get());
+        assertEquals(1, meterRegistry.get("llm.call").tag("outcome", "http_error").timer().count());
+    }
+
+    @Test
+    void completeAsync_ShouldNotRetry_WhenRequestIsRejected() {
+        // Arrange
+        statuses.add(400);
+
+        // Act
+        String reply = llmService.completeAsync("hello").join();
+
+        // Assert
+        assertEquals(LLMService.UNKNOWN, reply);
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void completeAsync_ShouldRejectCallsBeyondTheInFlightLimit() throws Exception {
+        // Arrange: the stub holds both admitted calls until released
+        release = new CountDownLatch(1);
+        List<CompletableFuture<String>> admitted = new ArrayList<>();
+        admitted.add(llmService.completeAsync("first"));
+        admitted.add(llmService.completeAsync("second"));
+
+        // Act
+        String rejected = llmService.completeAsync("third").get(1, TimeUnit.SECONDS);
+        release.countDown();
+
+        // Assert
+        assertEquals(LLMService.UNKNOWN, rejected);
+        for (CompletableFuture<String> call : admitted) {
+            assertEquals("FIND_ROUTE", call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, requests.get());
+        assertEquals(1.0, meterRegistry.get("llm.call.rejected").counter().count());
+        assertEquals("FIND_ROUTE", llmService.completeAsync("after").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void completeAsync_ShouldReturnUnknown_WhenCallTimesOut() throws Exception {
+        // Arrange
+        llmService.shutdown();
+        llmService = newService(2, 200);
+        release = new CountDownLatch(1);
+
+        // Act
+        String reply = llmService.completeAsync("slow").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(LLMService.UNKNOWN, reply);
+        assertEquals(1, requests.get());
+        assertEquals(1, meterRegistry.get("llm.call").tag("outcome", "timeout").timer().count());
+    }
+
+    @Test
+    void streamAsync_ShouldHandOverTokensAsTheyArrive_AndCompleteWithTheWholeReply() {
+        // Arrange
+        statuses.add(503);
+        List<String> tokens = new CopyOnWriteArrayList<>();
+
+        // Act
+        String reply = llmService.streamAsync("hello", tokens::add).join();
+
+        // Assert
+        assertEquals("Hello!", reply);
+        assertEquals(List.of("Hel", "lo!"), tokens);
+        assertEquals(2, requests.get());
+    }
+}
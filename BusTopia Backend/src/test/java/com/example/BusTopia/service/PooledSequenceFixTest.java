@@ -0,0 +1,61 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.DatabaseEntity.Bus;
+import com.example.BusTopia.DatabaseEntity.PooledSequenceFix;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Starts JPA on a database whose id sequences still step by 1, as databases from the identity column days do
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({PooledSequenceFix.class, PooledSequenceFix.EntityManagerFactoryDependency.class})
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=update",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:db/identity-era-sequences.sql"
+})
+class PooledSequenceFixTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void startup_ShouldRaiseSequenceIncrements_BeforeHibernateValidatesThem() {
+        // Act: the context only starts if the sequences were fixed before the EntityManagerFactory was built
+        Long increment = jdbcTemplate.queryForObject(
+                "SELECT CAST(INCREMENT AS BIGINT) FROM INFORMATION_SCHEMA.SEQUENCES WHERE UPPER(SEQUENCE_NAME) = 'BUS_BUS_ID_SEQ'",
+                Long.class);
+
+        // Assert
+        assertEquals(PooledSequenceFix.ALLOCATION_SIZE, increment);
+    }
+
+    @Test
+    void startup_ShouldMoveSequencesPastIdsAlreadyHandedOut() {
+        // Arrange
+        Bus bus = new Bus();
+        bus.setCompanyName("Green Line Paribahan");
+        bus.setLicenseNo("DHA-1");
+        bus.setCategory("AC");
+
+        // Act
+        entityManager.persist(bus);
+        entityManager.flush();
+
+        // Assert: the old sequence had handed out ids up to 119
+        assertTrue(bus.getBusId() >= 120, "id " + bus.getBusId() + " may collide with an existing bus");
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.DatabaseEntity.PriceMapping;
+import com.example.BusTopia.MySqlRepositories.PriceMappingRepository;
+import com.example.BusTopia.Services.PriceMatrixService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceMatrixServiceTest {
+
+    @Mock
+    private PriceMappingRepository priceMappingRepository;
+
+    @InjectMocks
+    private PriceMatrixService priceMatrixService;
+
+    @BeforeEach
+    void setup() {
+        when(priceMappingRepository.findAll()).thenReturn(List.of(
+                priceMapping("AC", "Dhaka", "Chittagong", 1200),
+                priceMapping("Non-AC", "Dhaka", "Chittagong", 700),
+                priceMapping("ac", "Chittagong", "Dhaka", 1100),
+                priceMapping("AC", "Comilla", "Dhaka", 450)
+        ));
+        priceMatrixService.reload();
+    }
+
+    @Test
+    void priceOf_ShouldMatchCaseInsensitivelyInEitherDirection() {
+        // Act & Assert
+        assertEquals(1200, priceMatrixService.priceOf("Dhaka", "Chittagong", "AC"));
+        assertEquals(1200, priceMatrixService.priceOf("dhaka", "CHITTAGONG", "ac"));
+        assertEquals(1100, priceMatrixService.priceOf("Chittagong", "Dhaka", "AC"));
+        assertEquals(450, priceMatrixService.priceOf("Dhaka", "Comilla", "AC"));
+        assertEquals(PriceMatrixService.NO_PRICE, priceMatrixService.priceOf("Dhaka", "Comilla", "Non-AC"));
+        assertEquals(PriceMatrixService.NO_PRICE, priceMatrixService.priceOf("Dhaka", "Sylhet", "AC"));
+        verify(priceMappingRepository, never()).getPrice(any(), any(), any());
+    }
+
+    @Test
+    void pricesByCategory_ShouldReturnEveryCategoryForThePair() {
+        // Act
+        Map<String, Integer> prices = priceMatrixService.pricesByCategory("Dhaka", "Chittagong");
+
+        // Assert
+        assertEquals(Map.of("ac", 1200, "non-ac", 700), prices);
+    }
+
+    @Test
+    void reload_ShouldSwapInNewPrices() {
+        // Arrange
+        when(priceMappingRepository.findAll()).thenReturn(List.of(priceMapping("AC", "Dhaka", "Chittagong", 1300)));
+
+        // Act
+        priceMatrixService.reloadAfterCommit(); // no transaction, reloads right away
+
+        // Assert
+        assertEquals(Optional.of(1300), priceMatrixService.getPrice("Dhaka", "Chittagong", "AC"));
+        assertEquals(PriceMatrixService.NO_PRICE, priceMatrixService.priceOf("Dhaka", "Comilla", "AC"));
+    }
+
+    private static PriceMapping priceMapping(String category, String stop1, String stop2, double price) {
+        PriceMapping mapping = new PriceMapping();
+        mapping.setCategory(category);
+        mapping.setStop1(stop1);
+        mapping.setStop2(stop2);
+        mapping.setPrice(price);
+        return mapping;
+    }
+}
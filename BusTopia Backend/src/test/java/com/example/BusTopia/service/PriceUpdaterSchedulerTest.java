@@ -0,0 +1,111 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.DTOs.Admin.PriceUpdateReport;
+import com.example.BusTopia.DatabaseEntity.PriceMapping;
+import com.example.BusTopia.DatabaseEntity.PricingStrategyConfig;
+import com.example.BusTopia.MySqlRepositories.PriceMappingRepository;
+import com.example.BusTopia.MySqlRepositories.PricingStrategyConfigRepository;
+import com.example.BusTopia.Schedulers.PriceUpdaterScheduler;
+import com.example.BusTopia.Services.PriceMatrixService;
+import com.example.BusTopia.Services.SalesRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceUpdaterSchedulerTest {
+
+    @Mock private SalesRollupService salesRollupService;
+    @Mock private PriceMappingRepository priceRepo;
+    @Mock private PricingStrategyConfigRepository configRepo;
+    @Mock private PriceMatrixService priceMatrixService;
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private PriceUpdaterScheduler priceUpdaterScheduler;
+
+    @BeforeEach
+    void setup() {
+        PricingStrategyConfig config = new PricingStrategyConfig();
+        config.setMinPrice(200);
+        config.setMaxPrice(5000);
+        config.setIncreasePercent(10);
+        config.setDecreasePercent(10);
+        when(configRepo.findById(1L)).thenReturn(Optional.of(config));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void updatePrices_ShouldBatchOnlyChangedRows_AndReportTheRun() throws Exception {
+        // Arrange: a busy route goes up, a quiet one goes down, a steady one is left alone
+        when(priceRepo.findAll()).thenReturn(List.of(
+                mapping(1, "Dhaka", "Chittagong", 1000),
+                mapping(2, "Dhaka", "Sylhet", 800),
+                mapping(3, "Dhaka", "Khulna", 900)));
+        when(salesRollupService.seatsSoldByStopsAndCategorySince(any())).thenReturn(Map.of(
+                SalesRollupService.stopsAndCategoryKey("Dhaka", "Chittagong", "AC"), 150L,
+                SalesRollupService.stopsAndCategoryKey("Dhaka", "Khulna", "AC"), 50L));
+
+        // Act
+        PriceUpdateReport report = priceUpdaterScheduler.updatePrices();
+
+        // Assert
+        ArgumentCaptor<List<Object>> changes = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<Object>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(eq("UPDATE price_mapping SET price = ? WHERE mapping_id = ?"),
+                changes.capture(), anyInt(), setter.capture());
+        assertEquals(2, changes.getValue().size());
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, changes.getValue().get(0));
+        verify(ps).setDouble(1, 1100.0);
+        verify(ps).setInt(2, 1);
+
+        verify(priceMatrixService).reloadAfterCommit();
+        verify(priceRepo, never()).saveAll(any());
+        assertEquals(3, report.mappingsChecked());
+        assertEquals(2, report.rowsChanged());
+        assertEquals(Optional.of(report), priceUpdaterScheduler.getLastReport());
+    }
+
+    @Test
+    void updatePrices_ShouldWriteNothing_WhenNoPriceChanges() {
+        // Arrange
+        when(priceRepo.findAll()).thenReturn(List.of(mapping(3, "Dhaka", "Khulna", 900)));
+        when(salesRollupService.seatsSoldByStopsAndCategorySince(any())).thenReturn(Map.of(
+                SalesRollupService.stopsAndCategoryKey("Dhaka", "Khulna", "AC"), 50L));
+
+        // Act
+        PriceUpdateReport report = priceUpdaterScheduler.updatePrices();
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate, priceMatrixService);
+        assertEquals(0, report.rowsChanged());
+    }
+
+    private PriceMapping mapping(int id, String stop1, String stop2, double price) {
+        PriceMapping mapping = new PriceMapping();
+        mapping.setMappingId(id);
+        mapping.setStop1(stop1);
+        mapping.setStop2(stop2);
+        mapping.setCategory("AC");
+        mapping.setPrice(price);
+        return mapping;
+    }
+}
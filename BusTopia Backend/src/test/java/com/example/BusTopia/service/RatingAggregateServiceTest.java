@@ -0,0 +1,85 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.DTOs.Review.RatingSummaryResponse;
+import com.example.BusTopia.DatabaseEntity.BusRatingAggregate;
+import com.example.BusTopia.DatabaseEntity.Review;
+import com.example.BusTopia.MySqlRepositories.BusRatingAggregateRepository;
+import com.example.BusTopia.MySqlRepositories.ReviewRepository;
+import com.example.BusTopia.Services.RatingAggregateService;
+import com.example.BusTopia.TestDataBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RatingAggregateServiceTest {
+
+    @Mock
+    private BusRatingAggregateRepository aggregateRepository;
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @InjectMocks
+    private RatingAggregateService ratingAggregateService;
+
+    @Test
+    void recordReview_ShouldAddStarsToTheBusAggregate() {
+        // Arrange
+        Review review = TestDataBuilder.buildReview();
+        LocalDateTime reviewTime = LocalDateTime.of(2025, 7, 7, 10, 30);
+        review.setReviewTime(reviewTime);
+
+        // Act
+        ratingAggregateService.recordReview(review);
+
+        // Assert
+        verify(aggregateRepository).addReview(review.getBus().getBusId(), review.getStars(), reviewTime);
+    }
+
+    @Test
+    void busRating_ShouldAverageFromTheAggregateRow() {
+        // Arrange
+        BusRatingAggregate aggregate = new BusRatingAggregate();
+        aggregate.setBusId(1);
+        aggregate.setReviewCount(4);
+        aggregate.setStarSum(14);
+        aggregate.setStars3(2);
+        aggregate.setStars4(0);
+        aggregate.setStars5(2);
+        when(aggregateRepository.findById(1)).thenReturn(Optional.of(aggregate));
+
+        // Act
+        RatingSummaryResponse rating = ratingAggregateService.busRating(1);
+
+        // Assert
+        assertEquals(4, rating.getReviewCount());
+        assertEquals(3.5, rating.getAverageStars(), 1e-9);
+        assertEquals(List.of(0L, 0L, 2L, 0L, 2L), rating.getStarCounts());
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    void companyRating_ShouldReturnNoReviews_WhenCompanyHasNoAggregates() {
+        // Arrange
+        List<Object[]> noRows = List.<Object[]>of(new Object[]{null, null, null, null, null, null, null, null});
+        when(aggregateRepository.sumByCompanyName("Unknown")).thenReturn(noRows);
+
+        // Act
+        RatingSummaryResponse rating = ratingAggregateService.companyRating("Unknown");
+
+        // Assert
+        assertEquals(0, rating.getReviewCount());
+        assertEquals(0.0, rating.getAverageStars());
+        assertNull(rating.getLastReviewTime());
+    }
+}
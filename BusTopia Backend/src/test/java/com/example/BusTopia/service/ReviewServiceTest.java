@@ -2,7 +2,10 @@ package com.example.BusTopia.service;
 
 import com.example.BusTopia.AwsConfiguration.AwsFileUpload;
 import com.example.BusTopia.DTOs.Review.BusDTOResponse;
+import com.example.BusTopia.DTOs.Review.BusInfoAndReviewResponse;
 import com.example.BusTopia.DTOs.Review.ReviewDTOResponse;
+import com.example.BusTopia.DTOs.Review.ReviewFeedRow;
+import com.example.BusTopia.DTOs.Review.ReviewPageResponse;
 import com.example.BusTopia.DTOs.Review.ReviewRequest;
 import com.example.BusTopia.DatabaseEntity.Bus;
 import com.example.BusTopia.DatabaseEntity.Review;
@@ -10,7 +13,9 @@ import com.example.BusTopia.DatabaseEntity.UserEntity;
 import com.example.BusTopia.MySqlRepositories.BusRepository;
 import com.example.BusTopia.MySqlRepositories.ReviewRepository;
 import com.example.BusTopia.MySqlRepositories.UserRepository;
+import com.example.BusTopia.Services.RatingAggregateService;
 import com.example.BusTopia.Services.ReviewService;
+import com.example.BusTopia.Services.TravelledBusIndex;
 import com.example.BusTopia.TestDataBuilder;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,11 +24,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.mock.web.MockMultipartFile;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,6 +53,12 @@ class ReviewServiceTest {
     @Mock
     private AwsFileUpload awsFileUpload;
 
+    @Mock
+    private TravelledBusIndex travelledBusIndex;
+
+    @Mock
+    private RatingAggregateService ratingAggregateService;
+
     @InjectMocks
     private ReviewService reviewService;
 
@@ -76,8 +89,8 @@ class ReviewServiceTest {
         Page<Bus> mockPage = new PageImpl<>(List.of(testBus));
         when(busRepository.findSpecificCompanyBus(anyString(), any(Pageable.class)))
                 .thenReturn(mockPage);
-        when(busRepository.existsTicketByUserIdAndBusId(anyInt(), anyInt()))
-                .thenReturn(true);
+        when(travelledBusIndex.busIdsOf(1L))
+                .thenReturn(new int[]{1});
 
         // Act
         Page<BusDTOResponse> result = reviewService.getAllBusesOfACompanyDTO(
@@ -87,13 +100,31 @@ class ReviewServiceTest {
         assertEquals(1, result.getContent().size());
         assertEquals("ABC-DEF-50-5", result.getContent().get(0).getLicenseNo());
         assertTrue(result.getContent().get(0).isCanCurrentUserReview());
+        verify(busRepository, never()).existsTicketByUserIdAndBusId(anyInt(), anyInt());
+    }
+
+    @Test
+    void getTravelledBuses_ShouldReturnEachBusOnce_WhenUserHasSeveralTickets() {
+        // Arrange
+        when(travelledBusIndex.busIdsOf(1L))
+                .thenReturn(new int[]{1});
+        when(busRepository.findByBusIdIn(List.of(1)))
+                .thenReturn(List.of(testBus));
+
+        // Act
+        List<BusDTOResponse> buses = reviewService.getTravelledBuses(1);
+
+        // Assert
+        assertEquals(1, buses.size());
+        assertTrue(buses.get(0).isCanCurrentUserReview());
+        verify(busRepository, never()).existsTicketByUserIdAndBusId(anyInt(), anyInt());
     }
 
     @Test
     void getReviewsByBusId_ShouldReturnReviewList() {
         // Arrange
-        when(reviewRepository.findByBusId(1))
-                .thenReturn(List.of(testReview));
+        when(reviewRepository.findFeedByBusId(1))
+                .thenReturn(List.of(feedRow(7, LocalDateTime.of(2025, 7, 7, 10, 0))));
 
         // Act
         List<ReviewDTOResponse> reviews = reviewService.getReviewsByBusId(1);
@@ -104,6 +135,33 @@ class ReviewServiceTest {
         assertEquals(5, reviews.get(0).getStars());
     }
 
+    @Test
+    void getReviewFeed_ShouldContinueAfterTheLastReview_WhenGivenNextCursor() {
+        // Arrange
+        LocalDateTime newest = LocalDateTime.of(2025, 7, 7, 10, 0);
+        LocalDateTime older = LocalDateTime.of(2025, 7, 6, 9, 0);
+        when(reviewRepository.findFeedPageBefore(eq(1), any(LocalDateTime.class), eq(Integer.MAX_VALUE), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(feedRow(9, newest), feedRow(8, newest), feedRow(5, older)));
+        when(reviewRepository.findFeedPageBefore(1, newest, 8, PageRequest.of(0, 3)))
+                .thenReturn(List.of(feedRow(5, older)));
+
+        // Act
+        ReviewPageResponse first = reviewService.getReviewFeed(1, null, 2);
+        ReviewPageResponse second = reviewService.getReviewFeed(1, first.getNextCursor(), 2);
+
+        // Assert
+        assertEquals(2, first.getReviews().size());
+        assertNotNull(first.getNextCursor());
+        assertEquals(1, second.getReviews().size());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getReviewFeed_ShouldThrow_WhenCursorIsInvalid() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> reviewService.getReviewFeed(1, "not-a-cursor", 20));
+        verifyNoInteractions(reviewRepository);
+    }
 
     @Test
     void submitReview_ShouldSuccess_WhenValidRequest() throws Exception {
@@ -111,7 +169,7 @@ class ReviewServiceTest {
         ReviewRequest request = new ReviewRequest(
                 1, 1, 5, "Great trip!", List.of("image1.jpg"));
 
-        when(busRepository.existsTicketByUserIdAndBusId(1, 1))
+        when(travelledBusIndex.hasTravelled(1L, 1))
                 .thenReturn(true);
         when(userRepository.findById(1L))
                 .thenReturn(Optional.of(testUser));
@@ -127,12 +185,13 @@ class ReviewServiceTest {
         assertNotNull(response);
         assertEquals("Great service!", response.getMessage());
         verify(reviewRepository, times(1)).save(any(Review.class));
+        verify(ratingAggregateService, times(1)).recordReview(testReview);
     }
 
     @Test
     void getReviewsByBusId_ShouldReturnEmptyList_WhenNoReviews() {
         // Arrange
-        when(reviewRepository.findByBusId(1))
+        when(reviewRepository.findFeedByBusId(1))
                 .thenReturn(List.of());
 
         // Act
@@ -142,6 +201,24 @@ class ReviewServiceTest {
         assertTrue(reviews.isEmpty());
     }
 
+    @Test
+    void getReviewsByLicenseNo_ShouldReturnEveryReview_WhenMoreThanAFeedPage() {
+        // Arrange
+        List<ReviewFeedRow> rows = new ArrayList<>();
+        for (int i = 0; i < 45; i++) {
+            rows.add(feedRow(100 - i, LocalDateTime.of(2025, 7, 7, 10, 0).minusHours(i)));
+        }
+        when(busRepository.findByLicenseNo("DHA-1234")).thenReturn(testBus);
+        when(reviewRepository.findFeedByBusId(testBus.getBusId())).thenReturn(rows);
+
+        // Act
+        BusInfoAndReviewResponse response = reviewService.getReviewsByLicenseNo("DHA-1234", 1);
+
+        // Assert
+        assertEquals(45, response.getReviews().size());
+        verify(reviewRepository, never()).findFeedPageBefore(anyInt(), any(), anyInt(), any());
+    }
+
     @Test
     void getReviewsByLicenseNo_ShouldThrow_WhenBusNotFound() {
         // Arrange
@@ -154,4 +231,8 @@ class ReviewServiceTest {
         }, "No bus found with license number");
     }
 
+    private ReviewFeedRow feedRow(int reviewId, LocalDateTime reviewTime) {
+        return new ReviewFeedRow(reviewId, "Great service!", testUser.getId(), testUser.getImageUrl(), reviewTime,
+                5, List.of(), testUser.getName());
+    }
 }
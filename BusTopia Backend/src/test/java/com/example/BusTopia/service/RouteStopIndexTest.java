@@ -0,0 +1,90 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.DatabaseEntity.Bus;
+import com.example.BusTopia.DatabaseEntity.Route;
+import com.example.BusTopia.MySqlRepositories.BusRepository;
+import com.example.BusTopia.MySqlRepositories.RouteRepository;
+import com.example.BusTopia.Services.RouteStopIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RouteStopIndexTest {
+
+    @Mock
+    private RouteRepository routeRepository;
+
+    @Mock
+    private BusRepository busRepository;
+
+    @InjectMocks
+    private RouteStopIndex routeStopIndex;
+
+    @BeforeEach
+    void setup() {
+        when(routeRepository.findAll()).thenReturn(List.of(
+                route(1, "Dhaka", "Comilla", "Chittagong"),
+                route(2, "Chittagong", "Comilla", "Dhaka"),
+                route(3, "Dhaka", "Sylhet")
+        ));
+        when(busRepository.findBusIdAndRouteId()).thenReturn(List.of(
+                new Object[]{10, 1},
+                new Object[]{11, 1},
+                new Object[]{20, 2}
+        ));
+        routeStopIndex.rebuild();
+    }
+
+    @Test
+    void findRoutes_ShouldOnlyReturnRoutesInTravelDirection() {
+        // Act
+        List<Route> routes = routeStopIndex.findRoutes("Dhaka", "Chittagong");
+
+        // Assert
+        assertEquals(1, routes.size());
+        assertEquals(1, routes.get(0).getRouteId());
+        assertEquals(List.of("Dhaka", "Comilla", "Chittagong"), routes.get(0).getStops());
+        verify(routeRepository, never()).findRoutesContainingBothStops(any(), any());
+    }
+
+    @Test
+    void findRoutes_ShouldReturnEmpty_WhenStopIsUnknown() {
+        // Act & Assert
+        assertTrue(routeStopIndex.findRoutes("Dhaka", "Khulna").isEmpty());
+    }
+
+    @Test
+    void findBusIds_ShouldFollowRerouteAndNewRoute() {
+        // Arrange
+        Bus bus = new Bus();
+        bus.setBusId(20);
+        bus.setRoute(route(3, "Dhaka", "Sylhet"));
+
+        // Act
+        routeStopIndex.onBusSaved(bus);
+        routeStopIndex.onRouteSaved(route(4, "Comilla", "Sylhet"));
+
+        // Assert
+        assertEquals(List.of(10, 11), routeStopIndex.findBusIds(routeStopIndex.findRoutes("Comilla", "Chittagong")));
+        assertEquals(List.of(20), routeStopIndex.findBusIds(routeStopIndex.findRoutes("Dhaka", "Sylhet")));
+        assertTrue(routeStopIndex.findBusIds(routeStopIndex.findRoutes("Chittagong", "Dhaka")).isEmpty());
+        assertEquals(4, routeStopIndex.findRoutes("Comilla", "Sylhet").get(0).getRouteId());
+    }
+
+    private static Route route(int id, String... stops) {
+        Route route = new Route();
+        route.setRouteId(id);
+        route.setStops(List.of(stops));
+        return route;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.DatabaseEntity.Route;
+import com.example.BusTopia.DatabaseEntity.TimeMapping;
+import com.example.BusTopia.MySqlRepositories.RouteRepository;
+import com.example.BusTopia.MySqlRepositories.TimeMappingRepository;
+import com.example.BusTopia.Services.RouteTimetableIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RouteTimetableIndexTest {
+
+    @Mock
+    private RouteRepository routeRepository;
+
+    @Mock
+    private TimeMappingRepository timeMappingRepository;
+
+    @InjectMocks
+    private RouteTimetableIndex routeTimetableIndex;
+
+    private Route route;
+
+    @BeforeEach
+    void setup() {
+        route = new Route();
+        route.setRouteId(1);
+        route.setStops(List.of("Dhaka", "Comilla", "Feni", "Chittagong"));
+
+        when(routeRepository.findAll()).thenReturn(List.of(route));
+        when(timeMappingRepository.findAll()).thenReturn(List.of(
+                timeMapping(1, "Dhaka", "Comilla", 120),
+                timeMapping(2, "Feni", "Comilla", 60), // stored against travel direction
+                timeMapping(3, "Feni", "Chittagong", 90)
+        ));
+        routeTimetableIndex.rebuild();
+    }
+
+    @Test
+    void minutesFromOrigin_ShouldReturnCumulativeOffsets_WithoutQueries() {
+        // Act & Assert
+        assertEquals(OptionalInt.of(0), routeTimetableIndex.minutesFromOrigin(route, "Dhaka"));
+        assertEquals(OptionalInt.of(120), routeTimetableIndex.minutesFromOrigin(route, "Comilla"));
+        assertEquals(OptionalInt.of(180), routeTimetableIndex.minutesFromOrigin(route, "Feni"));
+        assertEquals(OptionalInt.of(270), routeTimetableIndex.minutesFromOrigin(route, "Chittagong"));
+        assertTrue(routeTimetableIndex.minutesFromOrigin(route, "Sylhet").isEmpty());
+        verify(timeMappingRepository, never()).findDurationBetweenStops(any(), any());
+    }
+
+    @Test
+    void onTimeMappingSaved_ShouldShiftLaterStops_WhenSegmentChanges() {
+        // Act
+        routeTimetableIndex.onTimeMappingSaved(timeMapping(1, "Dhaka", "Comilla", 150));
+
+        // Assert
+        assertEquals(OptionalInt.of(150), routeTimetableIndex.minutesFromOrigin(route, "Comilla"));
+        assertEquals(OptionalInt.of(300), routeTimetableIndex.minutesFromOrigin(route, "Chittagong"));
+    }
+
+    @Test
+    void onTimeMappingRemoved_ShouldLeaveLaterStopsUnknown() {
+        // Act
+        routeTimetableIndex.onTimeMappingRemoved(timeMapping(2, "Feni", "Comilla", 60));
+
+        // Assert
+        assertEquals(OptionalInt.of(120), routeTimetableIndex.minutesFromOrigin(route, "Comilla"));
+        assertTrue(routeTimetableIndex.minutesFromOrigin(route, "Feni").isEmpty());
+        assertTrue(routeTimetableIndex.minutesFromOrigin(route, "Chittagong").isEmpty());
+    }
+
+    @Test
+    void minutesFromOrigin_ShouldIndexRouteOnFirstUse_WhenRouteIsNew() {
+        // Arrange
+        Route newRoute = new Route();
+        newRoute.setRouteId(2);
+        newRoute.setStops(List.of("Chittagong", "Feni"));
+
+        // Act
+        routeTimetableIndex.onBusRouteAssigned(newRoute);
+
+        // Assert
+        assertEquals(OptionalInt.of(90), routeTimetableIndex.minutesFromOrigin(newRoute, "Feni"));
+    }
+
+    private static TimeMapping timeMapping(int id, String stop1, String stop2, int duration) {
+        TimeMapping mapping = new TimeMapping();
+        mapping.setMappingId(id);
+        mapping.setStop1(stop1);
+        mapping.setStop2(stop2);
+        mapping.setDuration(duration);
+        return mapping;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.DatabaseEntity.Bus;
+import com.example.BusTopia.DatabaseEntity.Ticket;
+import com.example.BusTopia.MySqlRepositories.RouteSalesRollupRepository;
+import com.example.BusTopia.MySqlRepositories.TicketRepository;
+import com.example.BusTopia.Services.SalesRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupServiceTest {
+
+    @Mock
+    private RouteSalesRollupRepository rollupRepository;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @InjectMocks
+    private SalesRollupService salesRollupService;
+
+    private Ticket ticket;
+    private final LocalDate journeyDate = LocalDate.of(2025, 7, 7);
+
+    @BeforeEach
+    void setup() {
+        Bus bus = new Bus();
+        bus.setBusId(3);
+        bus.setCategory("AC");
+
+        ticket = new Ticket();
+        ticket.setBus(bus);
+        ticket.setSource("Dhaka");
+        ticket.setDestination("Chittagong");
+        ticket.setDate(journeyDate);
+        ticket.setSeats(List.of("A1", "A2"));
+        ticket.setPrice(2400);
+    }
+
+    @Test
+    void recordSale_ShouldAddTicketSeatsAndRevenue() {
+        // Act
+        salesRollupService.recordSale(ticket);
+
+        // Assert
+        verify(rollupRepository).addSales(3, "Dhaka", "Chittagong", "AC", journeyDate, 1, 2, 2400);
+    }
+
+    @Test
+    void recordCancellation_ShouldSubtractTicketSeatsAndRevenue() {
+        // Act
+        salesRollupService.recordCancellation(ticket);
+
+        // Assert
+        verify(rollupRepository).addSales(3, "Dhaka", "Chittagong", "AC", journeyDate, -1, -2, -2400);
+    }
+
+    @Test
+    void seatsSoldByStopsAndCategorySince_ShouldKeyTotalsByStopsAndCategory() {
+        // Arrange
+        LocalDate cutoff = LocalDate.of(2025, 6, 7);
+        when(rollupRepository.sumSeatsByStopsAndCategorySince(cutoff)).thenReturn(List.of(
+                new Object[]{"Dhaka", "Chittagong", "AC", 42L},
+                new Object[]{"Dhaka", "Chittagong", "Non-AC", 7L}));
+
+        // Act
+        Map<String, Long> seats = salesRollupService.seatsSoldByStopsAndCategorySince(cutoff);
+
+        // Assert
+        assertEquals(42L, seats.get(SalesRollupService.stopsAndCategoryKey("Dhaka", "Chittagong", "AC")));
+        assertEquals(7L, seats.get(SalesRollupService.stopsAndCategoryKey("Dhaka", "Chittagong", "Non-AC")));
+    }
+
+    @Test
+    void backfillIfEmpty_ShouldSkip_WhenRollupsAlreadyExist() {
+        // Arrange
+        when(rollupRepository.count()).thenReturn(12L);
+
+        // Act
+        salesRollupService.backfillIfEmpty();
+
+        // Assert
+        verify(rollupRepository, never()).insertFromTickets();
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.DatabaseEntity.*;
+import com.example.BusTopia.Inventory.SeatHoldService;
+import com.example.BusTopia.Inventory.SeatInventoryService;
+import com.example.BusTopia.MySqlRepositories.*;
+import com.example.BusTopia.Services.PriceMatrixService;
+import com.example.BusTopia.Services.SalesRollupService;
+import com.example.BusTopia.Services.TicketService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Books the same bus and date from many threads and two application instances against H2 and checks that no seat is sold twice
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({TicketService.class, PriceMatrixService.class, SeatInventoryService.class, SeatHoldService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TicketBookingConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+
+    @Autowired private TicketService ticketService;
+    @Autowired private SeatInventoryService seatInventoryService;
+    @Autowired private TicketRepository ticketRepository;
+    @Autowired private BusRepository busRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PriceMappingRepository priceMappingRepository;
+    @Autowired private SeatAvailabilityMappingRepository seatAvailabilityRepository;
+    @Autowired private BookedSeatRepository bookedSeatRepository;
+    @Autowired private TimeMappingRepository timeMappingRepository;
+    @Autowired private PriceMatrixService priceMatrixService;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @PersistenceContext private EntityManager entityManager;
+    // The rollup upsert is PostgreSQL's INSERT ... ON CONFLICT, which H2 does not speak
+    @MockBean private SalesRollupService salesRollupService;
+
+    private Bus bus;
+    private List<Long> userIds;
+    private List<String> seatLabels;
+    private final LocalDate journeyDate = LocalDate.of(2030, 1, 15);
+
+    @BeforeEach
+    void setup() {
+        ticketRepository.deleteAll();
+        seatAvailabilityRepository.deleteAll();
+
+        seatLabels = new ArrayList<>();
+        List<List<String>> grid = new ArrayList<>();
+        for (char row = 'A'; row <= 'J'; row++) {
+            List<String> cells = new ArrayList<>();
+            for (int column = 1; column <= 4; column++) {
+                String seat = row + String.valueOf(column);
+                cells.add(seat);
+                seatLabels.add(seat);
+            }
+            cells.add(2, ""); // aisle
+            grid.add(cells);
+        }
+        SeatLayout layout = new SeatLayout();
+        layout.setName("AC Standard 2+2");
+        layout.setCategory("AC");
+        layout.setLayout(grid);
+        transactionTemplate.executeWithoutResult(status -> entityManager.persist(layout));
+
+        bus = new Bus();
+        bus.setCompanyName("Green Line Paribahan");
+        bus.setLicenseNo("DHA-" + UUID.randomUUID().toString().substring(0, 8));
+        bus.setCategory("AC");
+        bus.setStartTime(LocalTime.of(8, 0));
+        bus.setSeatLayout(layout);
+        bus = busRepository.save(bus);
+
+        PriceMapping price = new PriceMapping();
+        price.setCategory("AC");
+        price.setStop1("Dhaka");
+        price.setStop2("Chittagong");
+        price.setPrice(1200);
+        priceMappingRepository.save(price);
+
+        userIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            UserEntity user = new UserEntity();
+            user.setEmail("user" + i + "-" + UUID.randomUUID() + "@example.com");
+            user.setName("User " + i);
+            user.setRole("ROLE_USER");
+            userIds.add(userRepository.save(user).getId());
+        }
+    }
+
+    @Test
+    void bookTicket_ShouldNeverSellASeatTwice_UnderConcurrentBookings() throws Exception {
+        // Arrange: a second TicketService with its own inventory stands in for another application instance
+        SeatInventoryService otherInventory = new SeatInventoryService(seatAvailabilityRepository, ticketRepository, bookedSeatRepository);
+        TicketService otherInstance = new TicketService(ticketRepository, busRepository, userRepository, timeMappingRepository,
+                priceMatrixService, otherInventory, new SeatHoldService(otherInventory, 10), salesRollupService);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            long userId = userIds.get(t);
+            Random random = new Random(t);
+            boolean here = t % 2 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    // Pick two adjacent seats so that threads keep colliding
+                    int first = random.nextInt(seatLabels.size() - 1);
+                    List<String> seats = List.of(seatLabels.get(first), seatLabels.get(first + 1));
+                    try {
+                        if (here) {
+                            ticketService.bookTicket(userId, bus.getBusId(), journeyDate, LocalTime.of(8, 0),
+                                    "Dhaka", "Chittagong", seats);
+                        } else {
+                            // Not a Spring bean, so the transaction comes from the template
+                            transactionTemplate.executeWithoutResult(status -> otherInstance.bookTicket(userId,
+                                    bus.getBusId(), journeyDate, LocalTime.of(8, 0), "Dhaka", "Chittagong", seats));
+                        }
+                        booked.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+        seatInventoryService.flush();
+        otherInventory.flush();
+
+        // Assert
+        List<Ticket> tickets = ticketRepository.findAll().stream()
+                .filter(ticket -> ticket.getBus().getBusId().equals(bus.getBusId()))
+                .toList();
+        Map<String, Integer> soldTo = new HashMap<>();
+        for (Ticket ticket : tickets) {
+            for (String seat : ticket.getSeats()) {
+                Integer previous = soldTo.put(seat, ticket.getTicketId());
+                assertNull(previous, "Seat " + seat + " sold to tickets " + previous + " and " + ticket.getTicketId());
+            }
+        }
+        assertEquals(booked.get(), tickets.size());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD, booked.get() + rejected.get());
+
+        SeatAvailabilityMapping mapping = seatAvailabilityRepository
+                .findByBus_BusIdAndJourneyDate(bus.getBusId(), journeyDate).orElseThrow();
+        assertEquals(soldTo.size(), mapping.getBookedSeats().size());
+        soldTo.forEach((seat, ticketId) -> assertEquals(ticketId.longValue(), mapping.getBookedSeats().get(seat)));
+        assertEquals(seatLabels.size() - soldTo.size(), mapping.getAvailableSeats());
+
+        System.out.printf("Booking stress: %d attempts from %d threads on two instances in %.1f ms (%.0f attempts/s), %d booked, %d rejected%n",
+                THREADS * ATTEMPTS_PER_THREAD, THREADS, elapsedNanos / 1e6,
+                THREADS * ATTEMPTS_PER_THREAD / (elapsedNanos / 1e9), booked.get(), rejected.get());
+    }
+
+    @Test
+    void bookTicket_ShouldNotFlushTheSeats_WhenTheBookingRollsBack() {
+        // Arrange
+        List<String> seats = List.of("A1", "A2");
+        ExecutorService flusher = Executors.newSingleThreadExecutor();
+
+        // Act: a flush lands while the booking is still uncommitted, then its transaction rolls back
+        transactionTemplate.executeWithoutResult(status -> {
+            ticketService.bookTicket(userIds.get(0), bus.getBusId(), journeyDate, LocalTime.of(8, 0),
+                    "Dhaka", "Chittagong", seats);
+            assertDoesNotThrow(() -> flusher.submit(seatInventoryService::flush).get(10, TimeUnit.SECONDS));
+            status.setRollbackOnly();
+        });
+        flusher.shutdown();
+        seatInventoryService.flush();
+
+        // Assert
+        assertTrue(ticketRepository.findAll().stream()
+                .noneMatch(ticket -> ticket.getBus().getBusId().equals(bus.getBusId())));
+        seatAvailabilityRepository.findByBus_BusIdAndJourneyDate(bus.getBusId(), journeyDate)
+                .ifPresent(mapping -> assertTrue(mapping.getBookedSeats().isEmpty(), "Flushed " + mapping.getBookedSeats()));
+        // The seats are for sale again
+        assertNotNull(ticketService.bookTicket(userIds.get(1), bus.getBusId(), journeyDate, LocalTime.of(8, 0),
+                "Dhaka", "Chittagong", seats));
+    }
+
+    @Test
+    void bookTicket_ShouldBeRefusedByTheDatabase_WhenAnotherInstanceSoldTheSeatSinceItsLastFlush() {
+        // Arrange: the other instance has its inventory loaded before this one sells C1
+        SeatInventoryService otherInventory = new SeatInventoryService(seatAvailabilityRepository, ticketRepository, bookedSeatRepository);
+        TicketService otherInstance = new TicketService(ticketRepository, busRepository, userRepository, timeMappingRepository,
+                priceMatrixService, otherInventory, new SeatHoldService(otherInventory, 10), salesRollupService);
+        otherInventory.getInventory(bus, journeyDate);
+        ticketService.bookTicket(userIds.get(0), bus.getBusId(), journeyDate, LocalTime.of(8, 0),
+                "Dhaka", "Chittagong", List.of("C1", "C2"));
+
+        // Act
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+                transactionTemplate.executeWithoutResult(status -> otherInstance.bookTicket(userIds.get(1),
+                        bus.getBusId(), journeyDate, LocalTime.of(8, 0), "Dhaka", "Chittagong", List.of("C2", "C3"))));
+
+        // Assert
+        assertEquals("One of the seats C2, C3 is already booked.", ex.getMessage());
+        assertEquals(1, ticketRepository.findAll().stream()
+                .filter(ticket -> ticket.getBus().getBusId().equals(bus.getBusId())).count());
+        // The refused claim was handed back, C3 is still for sale there
+        var inventory = otherInventory.getInventory(bus, journeyDate);
+        assertNotNull(inventory.claim(inventory.resolve(List.of("C3"))));
+    }
+
+    @Test
+    void getInventory_ShouldKeepSeatsOfCommittedTickets_WhenTheLastFlushWasLost() {
+        // Arrange: the booking commits, then the instance dies before its flush
+        ticketService.bookTicket(userIds.get(0), bus.getBusId(), journeyDate, LocalTime.of(8, 0),
+                "Dhaka", "Chittagong", List.of("C1", "C2"));
+        assertTrue(seatAvailabilityRepository.findByBus_BusIdAndJourneyDate(bus.getBusId(), journeyDate).isEmpty());
+
+        // Act: a fresh instance builds the inventory again
+        SeatInventoryService restarted = new SeatInventoryService(seatAvailabilityRepository, ticketRepository, bookedSeatRepository);
+        var inventory = restarted.getInventory(bus, journeyDate);
+
+        // Assert
+        assertThrows(IllegalArgumentException.class, () -> inventory.claim(inventory.resolve(List.of("C1"))));
+        assertEquals(seatLabels.size() - 2, inventory.getAvailableSeats());
+        restarted.flush();
+        assertEquals(2, seatAvailabilityRepository.findByBus_BusIdAndJourneyDate(bus.getBusId(), journeyDate)
+                .orElseThrow().getBookedSeats().size());
+    }
+
+    @Test
+    void flush_ShouldKeepSeatsWrittenByAnotherInstance_WhenBothUpdateTheSameRow() {
+        // Arrange: a second inventory over the same table stands in for another application instance
+        SeatInventoryService otherInstance = new SeatInventoryService(seatAvailabilityRepository, ticketRepository, bookedSeatRepository);
+        var here = seatInventoryService.getInventory(bus, journeyDate);
+        var there = otherInstance.getInventory(bus, journeyDate);
+
+        here.claim(here.resolve(List.of("A1"))).confirm(101L);
+        seatInventoryService.markDirty(here);
+        there.claim(there.resolve(List.of("B1"))).confirm(202L);
+        otherInstance.markDirty(there);
+
+        // Act
+        seatInventoryService.flush();
+        otherInstance.flush();
+
+        // Assert
+        SeatAvailabilityMapping mapping = seatAvailabilityRepository
+                .findByBus_BusIdAndJourneyDate(bus.getBusId(), journeyDate).orElseThrow();
+        assertEquals(Map.of("A1", 101L, "B1", 202L), mapping.getBookedSeats());
+        assertEquals(seatLabels.size() - 2, mapping.getAvailableSeats());
+        // The other instance learned about A1 and will not sell it
+        assertThrows(IllegalArgumentException.class, () -> there.claim(there.resolve(List.of("A1"))));
+    }
+}
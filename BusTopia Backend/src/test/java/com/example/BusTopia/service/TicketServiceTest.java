@@ -1,8 +1,13 @@
 package com.example.BusTopia.service;
 
 import com.example.BusTopia.DatabaseEntity.*;
+import com.example.BusTopia.Inventory.SeatHoldService;
+import com.example.BusTopia.Inventory.SeatInventoryService;
 import com.example.BusTopia.MySqlRepositories.*;
+import com.example.BusTopia.Services.PriceMatrixService;
+import com.example.BusTopia.Services.SalesRollupService;
 import com.example.BusTopia.Services.TicketService;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,12 +25,16 @@ import static org.mockito.Mockito.*;
 class TicketServiceTest {
 
     @Mock private TicketRepository ticketRepository;
+    @Mock private BookedSeatRepository bookedSeatRepository;
     @Mock private BusRepository busRepository;
     @Mock private UserRepository userRepository;
     @Mock private PriceMappingRepository priceMappingRepository;
     @Mock private SeatAvailabilityMappingRepository seatAvailabilityRepository;
+    @Mock private TimeMappingRepository timeMappingRepository;
+    @Mock private SalesRollupService salesRollupService;
 
-    @InjectMocks private TicketService ticketService;
+    private SeatInventoryService seatInventoryService;
+    private TicketService ticketService;
 
     private Bus mockBus;
     private UserEntity mockUser;
@@ -35,6 +44,11 @@ class TicketServiceTest {
 
     @BeforeEach
     void setup() {
+        seatInventoryService = new SeatInventoryService(seatAvailabilityRepository, ticketRepository, bookedSeatRepository);
+        SeatHoldService seatHoldService = new SeatHoldService(seatInventoryService, 10);
+        ticketService = new TicketService(ticketRepository, busRepository, userRepository, timeMappingRepository,
+                new PriceMatrixService(priceMappingRepository), seatInventoryService, seatHoldService, salesRollupService);
+
         journeyDate = LocalDate.of(2025, 7, 7);
         scheduledTime = LocalTime.of(9, 0);
         seatList = List.of("A1", "A2");
@@ -85,7 +99,14 @@ class TicketServiceTest {
         assertEquals("Dhaka", ticket.getSource());
         assertEquals(1000, ticket.getPrice());
         assertEquals(2, ticket.getSeats().size());
-        verify(seatAvailabilityRepository).save(any(SeatAvailabilityMapping.class));
+        verify(salesRollupService).recordSale(ticket);
+
+        // The mapping row is written by the write-behind flush, not by bookTicket itself
+        verify(seatAvailabilityRepository, never()).save(any(SeatAvailabilityMapping.class));
+        seatInventoryService.flush();
+        verify(seatAvailabilityRepository).save(mapping);
+        assertEquals(Map.of("A1", 123L, "A2", 123L), mapping.getBookedSeats());
+        assertEquals(2, mapping.getAvailableSeats());
     }
 
     @Test
@@ -117,6 +138,15 @@ class TicketServiceTest {
         assertEquals("Bus not found", ex.getMessage());
     }
 
+    @Test
+    void holdSeats_ShouldThrowEntityNotFound_WhenBusNotFound() {
+        when(busRepository.findById(1)).thenReturn(Optional.empty());
+        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class, () ->
+                ticketService.holdSeats("TXN_1", 1, journeyDate, seatList)
+        );
+        assertEquals("Bus not found", ex.getMessage());
+    }
+
     @Test
     void bookTicket_ShouldFail_WhenUserNotFound() {
         when(busRepository.findById(1)).thenReturn(Optional.of(mockBus));
@@ -144,6 +174,8 @@ class TicketServiceTest {
         when(userRepository.findById(10L)).thenReturn(Optional.of(mockUser));
         when(seatAvailabilityRepository.findByBus_BusIdAndJourneyDate(1, journeyDate))
                 .thenReturn(Optional.of(mapping));
+        when(ticketRepository.findSeatsByBusIdAndDate(1, journeyDate))
+                .thenReturn(List.<Object[]>of(new Object[]{99, List.of("A1")}));
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
                 ticketService.bookTicket(10L, 1, journeyDate, scheduledTime,
@@ -151,4 +183,83 @@ class TicketServiceTest {
         );
         assertEquals("Seat A1 is already booked.", ex.getMessage());
     }
+
+    @Test
+    void bookTicket_ShouldReleaseSeats_WhenPriceNotFound() {
+        when(busRepository.findById(1)).thenReturn(Optional.of(mockBus));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(mockUser));
+        when(seatAvailabilityRepository.findByBus_BusIdAndJourneyDate(1, journeyDate))
+                .thenReturn(Optional.empty());
+        when(priceMappingRepository.getPrice("Dhaka", "Chittagong", "AC"))
+                .thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () ->
+                ticketService.bookTicket(10L, 1, journeyDate, scheduledTime,
+                        "Dhaka", "Chittagong", seatList)
+        );
+
+        assertEquals(4, seatInventoryService.getInventory(mockBus, journeyDate).getAvailableSeats());
+        verify(ticketRepository, never()).save(any(Ticket.class));
+        verify(salesRollupService, never()).recordSale(any(Ticket.class));
+    }
+
+    @Test
+    void bookTicket_ShouldFail_WhenSeatNotInLayout() {
+        when(busRepository.findById(1)).thenReturn(Optional.of(mockBus));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(mockUser));
+        when(seatAvailabilityRepository.findByBus_BusIdAndJourneyDate(1, journeyDate))
+                .thenReturn(Optional.empty());
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+                ticketService.bookTicket(10L, 1, journeyDate, scheduledTime,
+                        "Dhaka", "Chittagong", List.of("Z9"))
+        );
+        assertEquals("Seat Z9 does not exist on this bus.", ex.getMessage());
+    }
+
+    @Test
+    void holdSeats_ShouldBlockOtherBookings_UntilHeldTicketIsBooked() {
+        when(busRepository.findById(1)).thenReturn(Optional.of(mockBus));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(mockUser));
+        when(seatAvailabilityRepository.findByBus_BusIdAndJourneyDate(1, journeyDate))
+                .thenReturn(Optional.empty());
+        when(priceMappingRepository.getPrice("Dhaka", "Chittagong", "AC"))
+                .thenReturn(Optional.of(500));
+        when(ticketRepository.save(any(Ticket.class)))
+                .thenAnswer(invocation -> {
+                    Ticket t = invocation.getArgument(0);
+                    t.setTicketId(77);
+                    return t;
+                });
+
+        ticketService.holdSeats("TXN_1", 1, journeyDate, seatList);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+                ticketService.bookTicket(10L, 1, journeyDate, scheduledTime,
+                        "Dhaka", "Chittagong", List.of("A2"))
+        );
+        assertEquals("Seat A2 is held for another payment.", ex.getMessage());
+        assertEquals(List.of("A1", "A2"), seatInventoryService.getInventory(mockBus, journeyDate).heldSeats());
+
+        Ticket ticket = ticketService.bookHeldTicket("TXN_1", 10L, 1, journeyDate, scheduledTime,
+                "Dhaka", "Chittagong", seatList);
+
+        assertEquals(77, ticket.getTicketId());
+        assertTrue(seatInventoryService.getInventory(mockBus, journeyDate).heldSeats().isEmpty());
+        assertEquals(Map.of("A1", 77L, "A2", 77L), seatInventoryService.getInventory(mockBus, journeyDate).bookedSeats());
+    }
+
+    @Test
+    void releaseHeldSeats_ShouldFreeSeats() {
+        when(busRepository.findById(1)).thenReturn(Optional.of(mockBus));
+        when(seatAvailabilityRepository.findByBus_BusIdAndJourneyDate(1, journeyDate))
+                .thenReturn(Optional.empty());
+
+        ticketService.holdSeats("TXN_2", 1, journeyDate, seatList);
+        assertEquals(2, seatInventoryService.getInventory(mockBus, journeyDate).getAvailableSeats());
+
+        ticketService.releaseHeldSeats("TXN_2");
+        assertEquals(4, seatInventoryService.getInventory(mockBus, journeyDate).getAvailableSeats());
+        assertTrue(seatInventoryService.getInventory(mockBus, journeyDate).heldSeats().isEmpty());
+    }
 }
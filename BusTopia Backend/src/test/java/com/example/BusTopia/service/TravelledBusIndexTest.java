@@ -0,0 +1,59 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.MySqlRepositories.BusRepository;
+import com.example.BusTopia.Services.TravelledBusIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TravelledBusIndexTest {
+
+    @Mock
+    private BusRepository busRepository;
+
+    private TravelledBusIndex travelledBusIndex;
+
+    @BeforeEach
+    void setup() {
+        travelledBusIndex = new TravelledBusIndex(busRepository, 300, 100);
+    }
+
+    @Test
+    void hasTravelled_ShouldQueryOncePerUser_WhenCheckingManyBuses() {
+        // Arrange
+        when(busRepository.findTravelledBusIds(1L)).thenReturn(List.of(7, 3));
+
+        // Act
+        boolean onThree = travelledBusIndex.hasTravelled(1L, 3);
+        boolean onFive = travelledBusIndex.hasTravelled(1L, 5);
+        boolean onSeven = travelledBusIndex.hasTravelled(1L, 7);
+
+        // Assert
+        assertTrue(onThree);
+        assertFalse(onFive);
+        assertTrue(onSeven);
+        verify(busRepository, times(1)).findTravelledBusIds(1L);
+    }
+
+    @Test
+    void hasTravelled_ShouldReload_WhenUserWasEvicted() {
+        // Arrange
+        when(busRepository.findTravelledBusIds(1L)).thenReturn(List.of(), List.of(5));
+        assertFalse(travelledBusIndex.hasTravelled(1L, 5));
+
+        // Act
+        travelledBusIndex.evict(1L);
+
+        // Assert
+        assertTrue(travelledBusIndex.hasTravelled(1L, 5));
+        verify(busRepository, times(2)).findTravelledBusIds(1L);
+    }
+}
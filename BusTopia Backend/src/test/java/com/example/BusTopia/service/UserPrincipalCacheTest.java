@@ -0,0 +1,88 @@
+package com.example.BusTopia.service;
+
+import com.example.BusTopia.DatabaseEntity.UserEntity;
+import com.example.BusTopia.RedisConfiguration.RedisUserCacheInvalidation;
+import com.example.BusTopia.Services.UserPrincipalCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserPrincipalCacheTest {
+
+    private ObjectProvider<RedisUserCacheInvalidation> invalidation;
+    private UserPrincipalCache userPrincipalCache;
+    private AtomicInteger loads;
+    private Function<String, UserEntity> loader;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        invalidation = mock(ObjectProvider.class);
+        userPrincipalCache = new UserPrincipalCache(invalidation, 60, 100);
+        loads = new AtomicInteger();
+        loader = email -> {
+            loads.incrementAndGet();
+            if (!email.equals("user@example.com")) return null;
+            UserEntity user = new UserEntity();
+            user.setEmail(email);
+            user.setRole("ROLE_USER");
+            return user;
+        };
+    }
+
+    @Test
+    void get_ShouldLoadOnce_WhenTheSameEmailIsSeenAgain() {
+        // Act
+        UserEntity first = userPrincipalCache.get("user@example.com", loader);
+        UserEntity second = userPrincipalCache.get("user@example.com", loader);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotCache_WhenUserDoesNotExist() {
+        // Act
+        assertNull(userPrincipalCache.get("missing@example.com", loader));
+        assertNull(userPrincipalCache.get("missing@example.com", loader));
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evict_ShouldReloadAndBroadcast_WhenUserChanges() {
+        // Arrange
+        RedisUserCacheInvalidation broadcaster = mock(RedisUserCacheInvalidation.class);
+        when(invalidation.getIfAvailable()).thenReturn(broadcaster);
+        userPrincipalCache.get("user@example.com", loader);
+
+        // Act
+        userPrincipalCache.evict("user@example.com");
+        userPrincipalCache.get("user@example.com", loader);
+
+        // Assert
+        assertEquals(2, loads.get());
+        verify(broadcaster).publish("user@example.com");
+    }
+
+    @Test
+    void get_ShouldReload_WhenEntryHasExpired() {
+        // Arrange
+        userPrincipalCache = new UserPrincipalCache(invalidation, 0, 100);
+
+        // Act
+        userPrincipalCache.get("user@example.com", loader);
+        userPrincipalCache.get("user@example.com", loader);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,5 @@
+-- Sequences as the identity columns left them: one id per call, already used up to 119
+CREATE SEQUENCE IF NOT EXISTS ticket_ticket_id_seq START WITH 120 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS review_review_id_seq START WITH 120 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS bus_bus_id_seq START WITH 120 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS seat_availability_mapping_id_seq START WITH 120 INCREMENT BY 1;